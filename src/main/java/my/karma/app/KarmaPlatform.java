@@ -8,15 +8,41 @@ import java.awt.geom.Rectangle2D;
 import java.awt.geom.RectangularShape;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
 
 /**
@@ -33,7 +59,29 @@ public class KarmaPlatform extends JPanel implements KeyListener {
     private boolean exit = false;
     private static int debug;
     private static String debugFilter = "";
-    private final boolean[] keys = new boolean[1024];
+    private final KeyEventQueue keyEvents = new KeyEventQueue(256);
+    private final InputSnapshot inputSnapshot = new InputSnapshot();
+    private final InputActions inputActions = new InputActions();
+    private String inputRecordPath = "";
+    private String inputReplayPath = "";
+    private final SimulationRandom random = new SimulationRandom();
+    private double fixedDelta = 0;
+    private long tick = 0;
+    private final SimulationChecksum simulationChecksum = new SimulationChecksum();
+    private final SceneSnapshot initialSnapshot = new SceneSnapshot();
+    private final SceneSnapshot quickSaveSnapshot = new SceneSnapshot();
+    private RewindBuffer rewindBuffer;
+    private boolean paused = false;
+    /**
+     * Key events received while paused, to be processed by the next simulated tick.
+     */
+    private final Deque<KeyEvent> pausedKeyEvents = new ArrayDeque<>();
+    /**
+     * Tick step requested while paused: -1 one tick back, +1 one tick forward.
+     */
+    private int stepRequest = 0;
+    private String checksumRecordPath = "";
+    private String checksumVerifyPath = "";
     private JFrame frame;
     private BufferedImage buffer;
     private Dimension winSize;
@@ -44,6 +92,36 @@ public class KarmaPlatform extends JPanel implements KeyListener {
     private World world;
     private SceneManager sceneManager;
     private SpacePartition spacePartition;
+    private final ContactCache contacts = new ContactCache();
+    private final ContactSolver solver = new ContactSolver();
+    private final List<TileMap> tileMaps = new ArrayList<>();
+    private double[] particleStatics = new double[64];
+    private WorldStreamer streamer;
+    private SpriteAtlas atlas = new SpriteAtlas(1024);
+    private final TextCache textCache = new TextCache(256);
+    /**
+     * Debug information of the {@link Entity} drawn on the game thread.
+     */
+    private final RenderItem debugItem = new RenderItem();
+    private final RendererRegistry renderers = new RendererRegistry();
+    private final Renderer<Entity> entityRenderer = (app, g, e) -> drawEntity(g, e, app.tick);
+    private final Renderer<TextObject> textRenderer = (app, g, e) -> app.drawTextObject(g, e);
+    private final Renderer<GridObject> gridRenderer = (app, g, e) -> app.drawGridObject(g, e);
+    private final Renderer<TileMap> tileMapRenderer = (app, g, e) -> drawTileMap(g, e);
+    private final Renderer<Disturbance> disturbanceRenderer = (app, g, e) -> app.drawDisturbance(g, e);
+    private boolean threadedRendering = false;
+    private final RenderTripleBuffer renderFrames = new RenderTripleBuffer();
+    private Thread renderThread;
+    private volatile boolean rendering = false;
+    /**
+     * Number of horizontal bands drawn in parallel, and the minimum number of consecutive items to do so.
+     */
+    private int renderBands = 0;
+    private static final int MIN_BAND_ITEMS = 32;
+    private ForkJoinPool renderPool;
+    private final RenderFrame bandFrame = new RenderFrame();
+    private boolean dirtyRendering = false;
+    private final DirtyRegionTracker dirtyTracker = new DirtyRegionTracker();
     private boolean testMode;
 
     /**
@@ -55,6 +133,35 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         IMAGE
     }
 
+    /**
+     * Animation states of an {@link Entity}, selected from its velocity by an {@link Animation}.
+     */
+    public enum AnimationState {
+        IDLE,
+        RUN,
+        JUMP,
+        FALL
+    }
+
+    /**
+     * Update level of detail for an {@link Entity}, according to its distance to the {@link Camera} viewport.
+     * Only the {@link PhysicType#DYNAMIC} entities are concerned, the other ones are always updated as NEAR.
+     */
+    public enum UpdateLOD {
+        /**
+         * {@link Entity} is fully updated on every tick.
+         */
+        NEAR,
+        /**
+         * {@link Entity} is fully updated every N ticks, with the accumulated elapsed time.
+         */
+        MID,
+        /**
+         * {@link Entity} only runs its {@link Behavior}s, without any physic nor collision.
+         */
+        FAR
+    }
+
     /**
      * Physic type for Entity behavior in physic engine calculation.
      */
@@ -204,6 +311,10 @@ public class KarmaPlatform extends JPanel implements KeyListener {
                         app.resSize = new Dimension(Integer.parseInt(res[0]), Integer.parseInt(res[1]));
                     }
                     case "app.rendering.strategy" -> app.strategyBufferNb = Integer.parseInt(arg[1]);
+                    case "app.rendering.threaded" -> app.threadedRendering = Boolean.parseBoolean(arg[1]);
+                    case "app.rendering.bands" -> app.renderBands = Integer.parseInt(arg[1]);
+                    case "app.rendering.dirty" -> app.dirtyRendering = Boolean.parseBoolean(arg[1]);
+                    case "app.rendering.atlas.page.size" -> app.atlas = new SpriteAtlas(Integer.parseInt(arg[1]));
                     case "app.physic.world.play.area" -> {
                         String[] res = arg[1].split("x");
                         app.world = new World()
@@ -229,11 +340,37 @@ public class KarmaPlatform extends JPanel implements KeyListener {
                     case "app.physic.partitioning.max.node.per.level" -> {
                         app.world.partitionCellPerLevel = Integer.parseInt(arg[1]);
                     }
+                    case "app.physic.solver.iterations" -> app.solver.setIterations(Integer.parseInt(arg[1]));
+                    case "app.physic.world.chunk.size" -> {
+                        String[] res = arg[1].split("x");
+                        app.world.setChunkSize(Integer.parseInt(res[0]), Integer.parseInt(res[1]));
+                    }
+                    case "app.physic.world.chunk.radius" -> {
+                        app.world.chunkActiveRadius = Integer.parseInt(arg[1]);
+                    }
+                    case "app.physic.world.chunk.margin" -> {
+                        app.world.chunkMarginRadius = Integer.parseInt(arg[1]);
+                    }
+                    case "app.input.actions" -> app.inputActions.parse(arg[1]);
+                    case "app.input.record" -> app.inputRecordPath = arg.length > 1 ? arg[1] : "";
+                    case "app.input.replay" -> app.inputReplayPath = arg.length > 1 ? arg[1] : "";
+                    case "app.simulation.seed" -> app.random.setSeed(Long.parseLong(arg[1]));
+                    case "app.simulation.fixed.delta" -> app.fixedDelta = Double.parseDouble(arg[1]);
+                    case "app.simulation.checksum.period" -> app.simulationChecksum.setPeriod(Integer.parseInt(arg[1]));
+                    case "app.simulation.checksum.record" -> app.checksumRecordPath = arg.length > 1 ? arg[1] : "";
+                    case "app.simulation.checksum.verify" -> app.checksumVerifyPath = arg.length > 1 ? arg[1] : "";
+                    case "app.simulation.rewind.ticks" -> {
+                        int nbTicks = Integer.parseInt(arg[1]);
+                        app.rewindBuffer = nbTicks > 0 ? new RewindBuffer(nbTicks, app.contacts, app.random) : null;
+                    }
                     case "app.scenes.list" -> {
                         app.sceneManager = new SceneManager(app);
                         app.sceneManager.load(arg[1]);
                     }
                     case "app.scenes.default" -> app.sceneManager.setDefaultSceneName(arg[1]);
+                    case "app.scenes.async" -> app.sceneManager.setAsync(Boolean.parseBoolean(arg[1]));
+                    case "app.scenes.cache" -> app.sceneManager.setCacheEnabled(Boolean.parseBoolean(arg[1]));
+                    case "app.scenes.transition" -> app.sceneManager.setTransitionSceneName(arg[1]);
 
                     default -> error("Unknown %s attribute ", s);
                 }
@@ -253,17 +390,21 @@ public class KarmaPlatform extends JPanel implements KeyListener {
     public static class Entity {
         /*---- identification attributes ----*/
         /**
-         * internal entity counters to feed the id.
+         * internal entity counters to feed the id, shared with the scene loader thread.
          */
-        private static long index = 0;
-        long id = index++;
+        private static final AtomicLong index = new AtomicLong();
+        long id = index.getAndIncrement();
         public String name;
 
         /*---- Geometric attributes ----*/
         public Vector2D position = new Vector2D(0, 0);
         public double w, h;
         public Vector2D size = new Vector2D(0, 0);
-        private Vector2D center;
+        private final Vector2D center = new Vector2D(0, 0);
+        /**
+         * Position and size the bounding box and the center have been computed from.
+         */
+        private double geometryX = Double.NaN, geometryY = Double.NaN, geometryW = Double.NaN, geometryH = Double.NaN;
 
         /*---- Physic computation attributes ----*/
         /**
@@ -280,7 +421,18 @@ public class KarmaPlatform extends JPanel implements KeyListener {
          */
         public Vector2D velocity = new Vector2D(0, 0);
         public Vector2D acceleration = new Vector2D(0, 0);
-        public List<Vector2D> forces = new ArrayList<>();
+        /**
+         * Forces accumulated for the current tick, reset after each physic computation.
+         */
+        private double forceX, forceY;
+        /**
+         * Impulses accumulated for the current tick, directly changing the velocity.
+         */
+        private double impulseX, impulseY;
+        /**
+         * Persistent {@link ForceGenerator}s (spring, drag, ...) applied on each physic computation.
+         */
+        private final List<ForceGenerator> forceGenerators = new ArrayList<>();
         /**
          * {@link Material} characteristics apply for physic computation.
          */
@@ -289,6 +441,12 @@ public class KarmaPlatform extends JPanel implements KeyListener {
          * the {@link Entity}'s mass.
          */
         private double mass = 1.0;
+        /**
+         * Collision layers: the category bits this Entity belongs to, and the mask of the categories it collides with.
+         * By default, an Entity belongs to the first category and collides with all of them.
+         */
+        private int collisionCategory = 1;
+        private int collisionMask = 0xFFFFFFFF;
 
 
         /*---- Rendering attributes ----*/
@@ -305,6 +463,34 @@ public class KarmaPlatform extends JPanel implements KeyListener {
          * image to be used for {@link EntityType#IMAGE} typed {@link Entity}.
          */
         private BufferedImage image;
+        /**
+         * {@link SpriteAtlas.Sprite} to be used for {@link EntityType#IMAGE} typed {@link Entity}, instead of the image.
+         */
+        private SpriteAtlas.Sprite sprite;
+        /**
+         * Shared {@link Animation} clips definition, and the current animation state with the tick it started at.
+         */
+        private Animation animation;
+        private AnimationState animState = AnimationState.IDLE;
+        private long animStart = -1;
+        /**
+         * The render kind cached by the {@link RendererRegistry}, with the registry version it was resolved for.
+         */
+        private int renderKind = -1;
+        private int renderVersion = -1;
+        /**
+         * Screen area and appearance of the last drawing, tracked by the {@link DirtyRegionTracker}.
+         */
+        private double drawnX, drawnY, drawnW, drawnH;
+        private Object drawnLook;
+        private Color drawnFg, drawnBg;
+        private boolean drawnFlipped;
+        private long drawnFrame = -1;
+        /**
+         * Debug label, built again only when the name changes.
+         */
+        private String debugLabel;
+        private String debugLabelName;
         /**
          * Rendering priority.
          */
@@ -312,9 +498,9 @@ public class KarmaPlatform extends JPanel implements KeyListener {
 
         /*---- Collision and update attributes -----*/
         /**
-         * Bounding box for this entity
+         * Bounding box for this entity, lazily computed by {@link Entity#getBox()}.
          */
-        public Rectangle2D box = new Rectangle2D.Double();
+        private Rectangle2D box = new Rectangle2D.Double();
         /**
          * Duration for this {@link Entity}. If it is different from -1,
          * it defines the life duration in millisecond.
@@ -328,6 +514,23 @@ public class KarmaPlatform extends JPanel implements KeyListener {
          * If the flag isStatic set to true, the {@link Entity} is stick to the active {@link Camera}.
          */
         private boolean isStatic = false;
+        /**
+         * If the flag frozen is set to true, the {@link Entity} is loaded but not simulated
+         * (see {@link WorldStreamer}).
+         */
+        private boolean frozen = false;
+        /**
+         * Update level of detail distances to the {@link Camera} viewport (see {@link UpdateLOD}).
+         * A negative near distance deactivates the LOD: the {@link Entity} is always {@link UpdateLOD#NEAR}.
+         */
+        private double lodNearDistance = -1;
+        private double lodFarDistance = -1;
+        /**
+         * Number of ticks between two updates for a {@link UpdateLOD#MID} {@link Entity}.
+         */
+        private int lodRate = 4;
+        private int lodTicks = 0;
+        private double lodElapsed = 0;
         /**
          * List of {@link Behavior} applied to this {@link Entity}.
          */
@@ -339,7 +542,11 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         /**
          * List of {@link CollisionEvent} link top this {@link Entity}.
          */
-        private final Collection<CollisionEvent> collisions = new ArrayList<>();
+        private final List<CollisionEvent> collisions = new ArrayList<>();
+        /**
+         * Incremented on each collision detection, to find the contacts of the {@link ContactCache} not seen again.
+         */
+        private int contactStamp = 0;
 
         /**
          * Free List of attributes to be populated on needs according to {@link Entity}
@@ -370,20 +577,68 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         }
 
         public Entity addForce(Vector2D f) {
-            this.forces.add(f);
+            return applyForce(f.x, f.y);
+        }
+
+        /**
+         * Accumulate a force to be applied on the next physic computation.
+         *
+         * @param fx the horizontal force
+         * @param fy the vertical force
+         * @return this updated Entity (thanks to fluent API).
+         */
+        public Entity applyForce(double fx, double fy) {
+            this.forceX += fx;
+            this.forceY += fy;
+            return this;
+        }
+
+        /**
+         * Accumulate an impulse, changing the velocity according to the {@link Entity}'s mass
+         * on the next physic computation.
+         *
+         * @param ix the horizontal impulse
+         * @param iy the vertical impulse
+         * @return this updated Entity (thanks to fluent API).
+         */
+        public Entity applyImpulse(double ix, double iy) {
+            this.impulseX += ix;
+            this.impulseY += iy;
+            return this;
+        }
+
+        /**
+         * Register a persistent {@link ForceGenerator} applied on each physic computation.
+         *
+         * @param fg the {@link ForceGenerator} to be added.
+         * @return this updated Entity (thanks to fluent API).
+         */
+        public Entity addForceGenerator(ForceGenerator fg) {
+            this.forceGenerators.add(fg);
             return this;
         }
 
+        public List<ForceGenerator> getForceGenerators() {
+            return forceGenerators;
+        }
+
+        public double getForceX() {
+            return forceX;
+        }
+
+        public double getForceY() {
+            return forceY;
+        }
+
         /**
          * Add a new {@link CollisionEvent} to the {@link Entity}.
+         * The engine only registers the new contacts of its {@link ContactCache}, which are unique.
          *
          * @param ce the new {@link CollisionEvent} to be linked to this {@link Entity}.
          * @return this updated Entity (thanks to fluent API).
          */
         public Entity register(CollisionEvent ce) {
-            if (!collisions.contains(ce)) {
-                collisions.add(ce);
-            }
+            collisions.add(ce);
             return this;
         }
 
@@ -395,10 +650,6 @@ public class KarmaPlatform extends JPanel implements KeyListener {
             return child;
         }
 
-        public void clearRegisteredCollisions() {
-            this.collisions.clear();
-        }
-
         /**
          * The {@link Entity} is updated with the elapsed time since the
          * previous call to set its new life and define status for active attribute.
@@ -407,7 +658,14 @@ public class KarmaPlatform extends JPanel implements KeyListener {
          * @param d
          */
         public void update(double d) {
-            updateBox();
+            if (animation != null) {
+                AnimationState state = animation.select(this);
+                if (state != animState) {
+                    // the clip restarts at the next drawn tick.
+                    animState = state;
+                    animStart = -1;
+                }
+            }
             if (duration != -1 && isActive()) {
                 life += d;
                 if (life > duration) {
@@ -428,7 +686,6 @@ public class KarmaPlatform extends JPanel implements KeyListener {
          */
         public Entity setPosition(double x, double y) {
             this.position = new Vector2D(x, y);
-            updateBox();
             return this;
         }
 
@@ -440,7 +697,6 @@ public class KarmaPlatform extends JPanel implements KeyListener {
          */
         public Entity setPosition(Vector2D p) {
             this.position = p;
-            updateBox();
             return this;
         }
 
@@ -493,16 +749,46 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         public Entity setSize(double w, double h) {
             this.w = w;
             this.h = h;
-            updateBox();
             return this;
         }
 
         /**
-         * update the bounding box and the center attributes.
+         * Force the computation of the bounding box and the center attributes.
          */
         public void updateBox() {
+            computeGeometry();
+            geometryX = position.x;
+            geometryY = position.y;
+            geometryW = w;
+            geometryH = h;
+        }
+
+        /**
+         * Compute the bounding box and the center, only if the position or the size changed since the last call.
+         * The position is compared to the one of the last computation, to also catch the direct changes
+         * of the position's fields.
+         */
+        private void validateGeometry() {
+            if (position.x != geometryX || position.y != geometryY || w != geometryW || h != geometryH) {
+                updateBox();
+            }
+        }
+
+        /**
+         * Compute the bounding box and the center attributes from position and size, without any allocation.
+         */
+        protected void computeGeometry() {
             box.setFrame(position.x, position.y, w, h);
-            center = position.add(new Vector2D((0.5 * w), (0.5 * h)));
+            center.x = position.x + 0.5 * w;
+            center.y = position.y + 0.5 * h;
+        }
+
+        /**
+         * @return the bounding box of this Entity, computed on first read after a position or size change.
+         */
+        public Rectangle2D getBox() {
+            validateGeometry();
+            return box;
         }
 
         public Entity setForegroundColor(Color frontColor) {
@@ -559,6 +845,46 @@ public class KarmaPlatform extends JPanel implements KeyListener {
             return this;
         }
 
+        /**
+         * Define the Entity sprite from a packed {@link SpriteAtlas}, and set its type to {@link EntityType#IMAGE}.
+         *
+         * @param s the {@link SpriteAtlas.Sprite} to be drawn for this Entity.
+         * @return this updated Entity (thanks to fluent API).
+         */
+        public Entity setSprite(SpriteAtlas.Sprite s) {
+            this.sprite = s;
+            this.type = EntityType.IMAGE;
+            return this;
+        }
+
+        public SpriteAtlas.Sprite getSprite() {
+            return sprite;
+        }
+
+        /**
+         * Define the (shared) {@link Animation} of this Entity, and set its type to {@link EntityType#IMAGE}.
+         *
+         * @param a the {@link Animation} clips to be played according to the Entity's velocity.
+         * @return this updated Entity (thanks to fluent API).
+         */
+        public Entity setAnimation(Animation a) {
+            this.animation = a;
+            this.animState = AnimationState.IDLE;
+            this.animStart = -1;
+            this.type = EntityType.IMAGE;
+            // the first frame defines the atlas page for the drawing order.
+            this.sprite = a.getClip(AnimationState.IDLE).frameAt(0);
+            return this;
+        }
+
+        public Animation getAnimation() {
+            return animation;
+        }
+
+        public AnimationState getAnimationState() {
+            return animState;
+        }
+
         public <T> Entity setAttribute(String attrName, T attrValue) {
             this.attributes.put(attrName, attrValue);
             return this;
@@ -599,6 +925,45 @@ public class KarmaPlatform extends JPanel implements KeyListener {
             return physicType;
         }
 
+        /**
+         * @param category the collision category bits this Entity belongs to.
+         * @return this updated Entity (thanks to fluent API).
+         */
+        public Entity setCollisionCategory(int category) {
+            this.collisionCategory = category;
+            return this;
+        }
+
+        /**
+         * @param mask the collision categories this Entity collides with.
+         * @return this updated Entity (thanks to fluent API).
+         */
+        public Entity setCollisionMask(int mask) {
+            this.collisionMask = mask;
+            return this;
+        }
+
+        public int getCollisionCategory() {
+            return collisionCategory;
+        }
+
+        public int getCollisionMask() {
+            return collisionMask;
+        }
+
+        /**
+         * Broad phase filter: both entities must accept the other one's category in their mask,
+         * and two {@link PhysicType#STATIC} entities never collide.
+         *
+         * @param o the other Entity.
+         * @return true if the pair must be tested for collision.
+         */
+        public boolean canCollideWith(Entity o) {
+            return (collisionCategory & o.collisionMask) != 0
+                && (o.collisionCategory & collisionMask) != 0
+                && !(physicType == PhysicType.STATIC && o.physicType == PhysicType.STATIC);
+        }
+
         public String toString() {
             return name + "[" + id + "]";
         }
@@ -620,7 +985,7 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         }
 
         public RectangularShape getBounds() {
-            return box.getBounds();
+            return getBox().getBounds();
         }
 
         public double getMass() {
@@ -641,7 +1006,64 @@ public class KarmaPlatform extends JPanel implements KeyListener {
             return this;
         }
 
+        /**
+         * Define the update level of detail for this Entity.
+         *
+         * @param near the max distance to the camera viewport to be updated every tick.
+         * @param far  the min distance to the camera viewport to only run behaviors.
+         * @param rate the number of ticks between two updates between near and far distances.
+         * @return this updated Entity (thanks to fluent API).
+         */
+        public Entity setUpdateLOD(double near, double far, int rate) {
+            this.lodNearDistance = near;
+            this.lodFarDistance = far;
+            this.lodRate = rate;
+            return this;
+        }
+
+        /**
+         * Compute the update level of detail from the distance between the Entity center and the viewport.
+         *
+         * @param viewport the camera viewport (can be null).
+         * @return the corresponding {@link UpdateLOD}.
+         */
+        public UpdateLOD getUpdateLOD(Rectangle2D viewport) {
+            if (lodNearDistance < 0 || Optional.ofNullable(viewport).isEmpty()) {
+                return UpdateLOD.NEAR;
+            }
+            double cx = position.x + w * 0.5;
+            double cy = position.y + h * 0.5;
+            double dx = Math.max(0, Math.max(viewport.getMinX() - cx, cx - viewport.getMaxX()));
+            double dy = Math.max(0, Math.max(viewport.getMinY() - cy, cy - viewport.getMaxY()));
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            if (dist <= lodNearDistance) {
+                return UpdateLOD.NEAR;
+            }
+            return dist < lodFarDistance ? UpdateLOD.MID : UpdateLOD.FAR;
+        }
+
+        public boolean isFrozen() {
+            return frozen;
+        }
+
+        public Entity setFrozen(boolean f) {
+            this.frozen = f;
+            return this;
+        }
+
+        /**
+         * @return the "#id=name" label displayed in debug mode.
+         */
+        public String getDebugLabel() {
+            if (debugLabelName != name) {
+                debugLabel = "#" + id + "=" + name;
+                debugLabelName = name;
+            }
+            return debugLabel;
+        }
+
         public Vector2D getCenter() {
+            validateGeometry();
             return this.center;
         }
 
@@ -659,7 +1081,60 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         }
 
         public void resetForces() {
-            forces.clear();
+            forceX = 0;
+            forceY = 0;
+            impulseX = 0;
+            impulseY = 0;
+        }
+    }
+
+    /**
+     * A {@link ForceGenerator} is registered once on an {@link Entity} and accumulates its force
+     * on each physic computation, thanks to {@link Entity#applyForce(double, double)}.
+     */
+    public interface ForceGenerator {
+        void apply(Entity e, double d);
+    }
+
+    /**
+     * A drag force, opposed to the {@link Entity}'s velocity.
+     */
+    public static class DragForce implements ForceGenerator {
+        private final double k;
+
+        public DragForce(double k) {
+            this.k = k;
+        }
+
+        @Override
+        public void apply(Entity e, double d) {
+            e.applyForce(-k * e.velocity.x, -k * e.velocity.y);
+        }
+    }
+
+    /**
+     * A spring force attaching the {@link Entity}'s center to an anchor point.
+     */
+    public static class SpringForce implements ForceGenerator {
+        private final Vector2D anchor;
+        private final double stiffness;
+        private final double restLength;
+
+        public SpringForce(Vector2D anchor, double stiffness, double restLength) {
+            this.anchor = anchor;
+            this.stiffness = stiffness;
+            this.restLength = restLength;
+        }
+
+        @Override
+        public void apply(Entity e, double d) {
+            double dx = e.position.x + e.w * 0.5 - anchor.x;
+            double dy = e.position.y + e.h * 0.5 - anchor.y;
+            double length = Math.sqrt(dx * dx + dy * dy);
+            if (length > 0) {
+                double f = -stiffness * (length - restLength) / length;
+                e.applyForce(dx * f, dy * f);
+            }
         }
     }
 
@@ -890,15 +1365,15 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         public void draw(Graphics2D g, float alpha) {
             SpacePartition sp = this;
             if (objects.isEmpty()) {
-                g.setColor(new Color(0.0f, 1.0f, 0.0f, alpha));
+                RenderCache.setColor(g, RenderCache.color(0.0f, 1.0f, 0.0f, alpha));
             } else if (objects.size() < maxObjectsPerNode) {
-                g.setColor(new Color(1.0f, 1.0f, 0.0f, alpha));
+                RenderCache.setColor(g, RenderCache.color(1.0f, 1.0f, 0.0f, alpha));
             } else {
-                g.setColor(new Color(1.0f, 0.0f, 0.0f, alpha));
+                RenderCache.setColor(g, RenderCache.color(1.0f, 0.0f, 0.0f, alpha));
             }
-            g.setFont(g.getFont().deriveFont(9.0f));
-            g.drawString("" + objects.size(), (int) x + 4, (int) y + 8);
-            g.setStroke(new BasicStroke(0.5f));
+            RenderCache.setFont(g, RenderCache.font(g.getFont(), 9.0f));
+            g.drawString(RenderCache.number(objects.size()), (int) x + 4, (int) y + 8);
+            RenderCache.setStroke(g, 0.5f);
             g.draw(this);
             if (this.nodes != null) {
                 for (SpacePartition node : nodes) {
@@ -931,419 +1406,4189 @@ public class KarmaPlatform extends JPanel implements KeyListener {
 
     }
 
-    public static class TextObject extends Entity {
-        private String text;
-        private String format = "";
-        private Color textColor;
-        private Font font;
-        private Object value;
-
-        public TextObject(String name) {
+    /**
+     * The {@link TileMap} is a layer of fixed size tiles, like the {@link GridObject} one,
+     * but backed by a memory-mapped file of tile ids to support very large levels.
+     * <p>
+     * Only the chunks around the {@link Camera} viewport are decoded into memory
+     * (see {@link TileMap#updateChunks(Rectangle2D)}), any other tile is read directly
+     * from the mapped file. Tile lookup is O(1) and is used for tile based collision
+     * with the {@link PhysicType#DYNAMIC} entities.
+     * <p>
+     * The map file format is an <code>int</code> map width and an <code>int</code> map height (in tiles),
+     * followed by the <code>short</code> tile ids, row by row. Tile id <code>0</code> is an empty tile,
+     * any other id is a solid one.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class TileMap extends Entity {
+        private static final int HEADER_SIZE = 2 * Integer.BYTES;
+        private int tileW = 16, tileH = 16;
+        private int chunkSize = 16;
+        private int mapW, mapH;
+        private int chunksX, chunksY;
+        private ShortBuffer tiles;
+        private short[][] chunks = new short[0][];
+        private final Rectangle loadedChunks = new Rectangle();
+        private Color[] tileColors = new Color[]{null, Color.GRAY};
+
+        public TileMap(String name) {
             super(name);
             setPhysicType(PhysicType.NONE);
-            this.textColor = Color.WHITE;
-            this.text = "EMPTY";
         }
 
-        public TextObject setText(String t) {
-            this.text = t;
+        /**
+         * Map the tile ids file into memory. No tile is read at this time.
+         *
+         * @param path the path to the map file.
+         * @return this updated TileMap (thanks to fluent API).
+         */
+        public TileMap load(Path path) {
+            try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+                int w = fc.size() >= HEADER_SIZE ? mbb.getInt(0) : 0;
+                int h = fc.size() >= HEADER_SIZE ? mbb.getInt(Integer.BYTES) : 0;
+                if (w <= 0 || h <= 0 || HEADER_SIZE + (long) w * h * Short.BYTES > fc.size()) {
+                    error("invalid tile map file %s: %dx%d tiles for %d bytes", path, w, h, fc.size());
+                    return this;
+                }
+                this.mapW = w;
+                this.mapH = h;
+                this.tiles = mbb.slice(HEADER_SIZE, w * h * Short.BYTES).asShortBuffer();
+                resetChunks();
+            } catch (IOException e) {
+                error("unable to map the tile map file %s: %s", path, e.getMessage());
+            }
             return this;
         }
 
-        public String getText() {
-            return text;
+        /**
+         * Write a map file to be later loaded with {@link TileMap#load(Path)}.
+         *
+         * @param path the path to the map file to be written.
+         * @param w    the map width in tiles.
+         * @param h    the map height in tiles.
+         * @param ids  the tile ids, row by row.
+         */
+        public static void write(Path path, int w, int h, short[] ids) {
+            try (FileChannel fc = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer bb = ByteBuffer.allocate(HEADER_SIZE + w * h * Short.BYTES);
+                bb.putInt(w).putInt(h);
+                bb.asShortBuffer().put(ids, 0, w * h);
+                bb.rewind();
+                while (bb.hasRemaining()) {
+                    fc.write(bb);
+                }
+            } catch (IOException e) {
+                error("unable to write the tile map file %s: %s", path, e.getMessage());
+            }
         }
 
-        public TextObject setFormat(String f) {
-            this.format = f;
+        public TileMap setTileSize(int tw, int th) {
+            this.tileW = tw;
+            this.tileH = th;
+            resetChunks();
             return this;
         }
 
-        public String getFormat() {
-            return format;
+        public TileMap setChunkSize(int cs) {
+            this.chunkSize = cs;
+            resetChunks();
+            return this;
         }
 
-        public TextObject setTextColor(Color tc) {
-            this.textColor = tc;
+        /**
+         * Define the colors to draw tiles with, indexed by tile id.
+         * A <code>null</code> color will not be drawn.
+         *
+         * @param colors the list of colors.
+         * @return this updated TileMap (thanks to fluent API).
+         */
+        public TileMap setTileColors(Color... colors) {
+            this.tileColors = colors;
             return this;
         }
 
-        public Color getTextColor() {
-            return this.textColor;
+        private void resetChunks() {
+            chunksX = (mapW + chunkSize - 1) / chunkSize;
+            chunksY = (mapH + chunkSize - 1) / chunkSize;
+            chunks = new short[chunksX * chunksY][];
+            loadedChunks.setBounds(0, 0, 0, 0);
+            setSize((double) mapW * tileW, (double) mapH * tileH);
         }
 
-        public TextObject setFont(Font f) {
-            this.font = f;
-            return this;
+        /**
+         * Load the chunks covering the viewport (plus a one chunk margin) and release the other ones.
+         *
+         * @param viewport the area in world coordinates to load chunks around.
+         */
+        public void updateChunks(Rectangle2D viewport) {
+            if (tiles == null) {
+                return;
+            }
+            int cx0 = Math.max(0, toTileX(viewport.getMinX()) / chunkSize - 1);
+            int cy0 = Math.max(0, toTileY(viewport.getMinY()) / chunkSize - 1);
+            int cx1 = Math.min(chunksX - 1, toTileX(viewport.getMaxX()) / chunkSize + 1);
+            int cy1 = Math.min(chunksY - 1, toTileY(viewport.getMaxY()) / chunkSize + 1);
+            if (cx0 == loadedChunks.x && cy0 == loadedChunks.y
+                && cx1 - cx0 + 1 == loadedChunks.width && cy1 - cy0 + 1 == loadedChunks.height) {
+                return;
+            }
+            // release chunks out of the new area.
+            for (int cy = loadedChunks.y; cy < loadedChunks.y + loadedChunks.height; cy++) {
+                for (int cx = loadedChunks.x; cx < loadedChunks.x + loadedChunks.width; cx++) {
+                    if (cx < cx0 || cx > cx1 || cy < cy0 || cy > cy1) {
+                        chunks[cy * chunksX + cx] = null;
+                    }
+                }
+            }
+            // decode the missing ones.
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    if (chunks[cy * chunksX + cx] == null) {
+                        chunks[cy * chunksX + cx] = readChunk(cx, cy);
+                    }
+                }
+            }
+            loadedChunks.setBounds(cx0, cy0, cx1 - cx0 + 1, cy1 - cy0 + 1);
         }
 
-        public Font getFont() {
-            return font;
+        private short[] readChunk(int cx, int cy) {
+            short[] chunk = new short[chunkSize * chunkSize];
+            int tw = Math.min(chunkSize, mapW - cx * chunkSize);
+            int th = Math.min(chunkSize, mapH - cy * chunkSize);
+            for (int ty = 0; ty < th; ty++) {
+                tiles.get((cy * chunkSize + ty) * mapW + cx * chunkSize, chunk, ty * chunkSize, tw);
+            }
+            return chunk;
         }
 
-        public TextObject setValue(Object v) {
-            this.value = v;
-            if (!this.format.isEmpty()) {
-                this.text = String.format(this.format, value);
+        /**
+         * Retrieve the tile id at tile coordinates (tx,ty). Outside the map, tile is empty.
+         *
+         * @param tx the horizontal tile coordinate
+         * @param ty the vertical tile coordinate
+         * @return the tile id.
+         */
+        public int getTile(int tx, int ty) {
+            if (tiles == null || tx < 0 || ty < 0 || tx >= mapW || ty >= mapH) {
+                return 0;
             }
-            return this;
+            short[] chunk = chunks[(ty / chunkSize) * chunksX + tx / chunkSize];
+            if (chunk != null) {
+                return chunk[(ty % chunkSize) * chunkSize + tx % chunkSize];
+            }
+            return tiles.get(ty * mapW + tx);
         }
 
-        public Object getValue() {
-            return value;
+        public boolean isSolid(int tx, int ty) {
+            return getTile(tx, ty) != 0;
         }
 
-        public void updateBox(double x, double y, double fontHeight, double textWidth) {
-            this.box = new Rectangle2D.Double(x, y, fontHeight, textWidth);
+        public boolean isSolidAt(double x, double y) {
+            return isSolid(toTileX(x), toTileY(y));
         }
-    }
 
-    public interface Scene {
-        String getTitle();
-
-        Camera getCamera();
-
-        void create(KarmaPlatform app);
-
-        default void initialize(KarmaPlatform app) {
+        /**
+         * Check if the rectangle area is overlapping any solid tile.
+         *
+         * @param r the area to be tested in world coordinates.
+         * @return true if at least one solid tile is overlapped.
+         */
+        public boolean intersectsSolid(Rectangle2D r) {
+            for (int ty = toTileY(r.getMinY()); ty <= toTileY(r.getMaxY() - 1); ty++) {
+                for (int tx = toTileX(r.getMinX()); tx <= toTileX(r.getMaxX() - 1); tx++) {
+                    if (isSolid(tx, ty)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
         }
 
-        default void input(KarmaPlatform app) {
-
+        public int toTileX(double x) {
+            return (int) Math.floor((x - position.x) / tileW);
         }
 
-        default void update(KarmaPlatform app, double d) {
+        public int toTileY(double y) {
+            return (int) Math.floor((y - position.y) / tileH);
         }
 
-        default void draw(KarmaPlatform app, Graphics2D g) {
+        public int getTileWidth() {
+            return tileW;
         }
 
-        default void dispose(KarmaPlatform app) {
+        public int getTileHeight() {
+            return tileH;
         }
 
-        void addEntity(KarmaPlatform.Entity e);
+        public int getMapWidth() {
+            return mapW;
+        }
 
-        Collection<Entity> getEntities();
+        public int getMapHeight() {
+            return mapH;
+        }
 
-        Entity getEntity(String entityName);
+        public Rectangle getLoadedChunks() {
+            return loadedChunks;
+        }
 
-        void clearEntities();
+        public int getChunkSize() {
+            return chunkSize;
+        }
 
-        default void onKeyReleased(KeyEvent ke) {
+        /**
+         * Copy the tiles of the loaded chunks, to be drawn by the render thread while the game thread
+         * loads other chunks.
+         *
+         * @param s the {@link Snapshot} to be filled.
+         */
+        public void capture(Snapshot s) {
+            s.fromX = loadedChunks.x * chunkSize;
+            s.fromY = loadedChunks.y * chunkSize;
+            s.cols = Math.max(Math.min((loadedChunks.x + loadedChunks.width) * chunkSize, mapW) - s.fromX, 0);
+            s.rows = Math.max(Math.min((loadedChunks.y + loadedChunks.height) * chunkSize, mapH) - s.fromY, 0);
+            if (s.ids.length < s.cols * s.rows) {
+                s.ids = new short[s.cols * s.rows];
+            }
+            for (int ty = 0; ty < s.rows; ty++) {
+                for (int tx = 0; tx < s.cols; tx++) {
+                    s.ids[ty * s.cols + tx] = (short) getTile(s.fromX + tx, s.fromY + ty);
+                }
+            }
+            s.x = position.x;
+            s.y = position.y;
+            s.tileW = tileW;
+            s.tileH = tileH;
+            s.colors = tileColors;
         }
 
-        String getName();
+        /**
+         * The tiles of the loaded chunks of a {@link TileMap}, copied at the end of a tick for the render thread.
+         */
+        public static class Snapshot {
+            private short[] ids = new short[0];
+            private int fromX, fromY, cols, rows;
+            private int tileW, tileH;
+            private double x, y;
+            private Color[] colors = new Color[0];
+
+            /**
+             * Draw the copied tiles.
+             *
+             * @param g the {@link Graphics2D} API to draw with.
+             */
+            public void draw(Graphics2D g) {
+                for (int ty = 0; ty < rows; ty++) {
+                    for (int tx = 0; tx < cols; tx++) {
+                        int id = ids[ty * cols + tx];
+                        if (id != 0) {
+                            Color c = colors[Math.min(id, colors.length - 1)];
+                            if (Optional.ofNullable(c).isPresent()) {
+                                RenderCache.setColor(g, c);
+                                g.fillRect((int) x + (fromX + tx) * tileW, (int) y + (fromY + ty) * tileH, tileW, tileH);
+                            }
+                        }
+                    }
+                }
+            }
+        }
     }
 
     /**
-     * The Default {@link Scene} interaction implementation to provide :
-     * <ul>
-     *     <li>a list {@link Entity} for the scene,</li>
-     *     <li>a default {@link Camera}</li>
-     *     <li>and {@link World} object</li>
-     * </ul>
-     *  to let the physical computation start.
+     * The {@link SpriteAtlas} packs sprite images into a few large images (pages), to let {@link Entity} draw
+     * a sub-rectangle of a page with {@link Entity#setSprite(SpriteAtlas.Sprite)}.
+     * <p>
+     * Images are packed on shelves, each one next to its horizontally flipped copy, so that an {@link Entity}
+     * moving to the left is drawn without any flipping transform at draw time.
+     * Pages are compatible images with the screen, and entities with the same priority are drawn grouped by page.
+     * <p>
+     * Add images with {@link SpriteAtlas#add(String, BufferedImage)}, then {@link SpriteAtlas#pack()} them
+     * and retrieve the {@link Sprite} with {@link SpriteAtlas#getSprite(String)}. A sprite sheet can be split
+     * into sub sprites with {@link SpriteAtlas#define(String, String, int, int, int, int)}.
      *
      * @author Frédéric Delorme
      */
-    public static abstract class AbstractScene implements KarmaPlatform.Scene {
+    public static class SpriteAtlas {
 
-        private final Map<String, KarmaPlatform.Entity> entities = new ConcurrentHashMap<>();
-        private final KarmaPlatform.World world;
-        private KarmaPlatform.Camera camera;
+        /**
+         * A sub-rectangle of a {@link SpriteAtlas} page, with the position of its flipped copy.
+         */
+        public static class Sprite {
+            private final BufferedImage page;
+            private final int pageIndex;
+            private final int x, y, w, h;
+            private final int flippedX;
+
+            public Sprite(BufferedImage page, int pageIndex, int x, int y, int w, int h, int flippedX) {
+                this.page = page;
+                this.pageIndex = pageIndex;
+                this.x = x;
+                this.y = y;
+                this.w = w;
+                this.h = h;
+                this.flippedX = flippedX;
+            }
 
-        public AbstractScene(KarmaPlatform app) {
-            this.world = app.getWorld();
+            /**
+             * Draw the sprite into the (dx,dy,dw,dh) destination area.
+             *
+             * @param g       the {@link Graphics2D} API instance to use.
+             * @param flipped true to draw the horizontally flipped copy.
+             */
+            public void draw(Graphics2D g, int dx, int dy, int dw, int dh, boolean flipped) {
+                int sx = flipped ? flippedX : x;
+                g.drawImage(page, dx, dy, dx + dw, dy + dh, sx, y, sx + w, y + h, null);
+            }
+
+            public int getPageIndex() {
+                return pageIndex;
+            }
+
+            public int getX() {
+                return x;
+            }
+
+            public int getY() {
+                return y;
+            }
+
+            public int getWidth() {
+                return w;
+            }
+
+            public int getHeight() {
+                return h;
+            }
+
+            public int getFlippedX() {
+                return flippedX;
+            }
+
+            public BufferedImage getPage() {
+                return page;
+            }
         }
 
-        public void addEntity(KarmaPlatform.Entity e) {
-            entities.put(e.name, e);
+        private final int pageSize;
+        private final List<BufferedImage> pages = new ArrayList<>();
+        private final Map<String, Sprite> sprites = new HashMap<>();
+        private final Map<String, BufferedImage> pending = new LinkedHashMap<>();
+        private int shelfX = 0, shelfY = 0, shelfH = 0;
+
+        public SpriteAtlas(int pageSize) {
+            this.pageSize = pageSize;
         }
 
-        public KarmaPlatform.World getWorld() {
-            return this.world;
+        /**
+         * Add an image to be packed at next {@link SpriteAtlas#pack()}.
+         *
+         * @param name  the name of the {@link Sprite}.
+         * @param image the image to be packed.
+         * @return this updated SpriteAtlas (thanks to fluent API).
+         */
+        public SpriteAtlas add(String name, BufferedImage image) {
+            pending.put(name, image);
+            return this;
         }
 
-        public void clearEntities() {
-            entities.clear();
+        /**
+         * Pack all the added images into the atlas pages, the highest first.
+         *
+         * @return this updated SpriteAtlas (thanks to fluent API).
+         */
+        public SpriteAtlas pack() {
+            List<Map.Entry<String, BufferedImage>> images = new ArrayList<>(pending.entrySet());
+            images.sort(Comparator.comparingInt(en -> -en.getValue().getHeight()));
+            Graphics2D g = null;
+            for (Map.Entry<String, BufferedImage> en : images) {
+                BufferedImage img = en.getValue();
+                int w = img.getWidth(), h = img.getHeight();
+                if (w * 2 > pageSize || h > pageSize) {
+                    error("Image %s (%dx%d) is too large for the atlas page size %d", en.getKey(), w, h, pageSize);
+                    continue;
+                }
+                // next shelf or next page.
+                if (shelfX + w * 2 > pageSize) {
+                    shelfY += shelfH;
+                    shelfX = 0;
+                    shelfH = 0;
+                }
+                if (pages.isEmpty() || shelfY + h > pageSize) {
+                    if (Optional.ofNullable(g).isPresent()) {
+                        g.dispose();
+                    }
+                    pages.add(createPage(pageSize));
+                    shelfX = 0;
+                    shelfY = 0;
+                    shelfH = 0;
+                    g = null;
+                }
+                if (Optional.ofNullable(g).isEmpty()) {
+                    g = pages.get(pages.size() - 1).createGraphics();
+                    g.setComposite(AlphaComposite.Src);
+                }
+                // the image and its horizontally flipped copy.
+                g.drawImage(img, shelfX, shelfY, null);
+                g.drawImage(img, shelfX + w * 2, shelfY, shelfX + w, shelfY + h, 0, 0, w, h, null);
+                sprites.put(en.getKey(), new Sprite(pages.get(pages.size() - 1), pages.size() - 1, shelfX, shelfY, w, h, shelfX + w));
+                shelfX += w * 2;
+                shelfH = Math.max(shelfH, h);
+            }
+            if (Optional.ofNullable(g).isPresent()) {
+                g.dispose();
+            }
+            pending.clear();
+            return this;
         }
 
-        public KarmaPlatform.Entity getEntity(String name) {
-            return entities.get(name);
+        /**
+         * Define a sub sprite from a region of an already packed one (e.g. a frame into a sprite sheet).
+         *
+         * @param name   the name of the new {@link Sprite}.
+         * @param parent the name of the packed {@link Sprite} to take the region from.
+         * @param x      horizontal position of the region into the parent sprite.
+         * @param y      vertical position of the region into the parent sprite.
+         * @param w      width of the region.
+         * @param h      height of the region.
+         * @return the new {@link Sprite}.
+         */
+        public Sprite define(String name, String parent, int x, int y, int w, int h) {
+            Sprite p = sprites.get(parent);
+            if (Optional.ofNullable(p).isEmpty()) {
+                error("Unknown sprite %s in atlas", parent);
+                return null;
+            }
+            Sprite s = new Sprite(p.page, p.pageIndex, p.x + x, p.y + y, w, h, p.flippedX + p.w - x - w);
+            sprites.put(name, s);
+            return s;
         }
 
-        public Collection<KarmaPlatform.Entity> getEntities() {
-            return entities.values();
+        private static BufferedImage createPage(int size) {
+            if (GraphicsEnvironment.isHeadless()) {
+                return new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+            }
+            return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration()
+                .createCompatibleImage(size, size, Transparency.TRANSLUCENT);
         }
 
-        public KarmaPlatform.Camera getCamera() {
-            return this.camera;
+        public Sprite getSprite(String name) {
+            return sprites.get(name);
         }
 
-        public KarmaPlatform.Scene setCamera(KarmaPlatform.Camera c) {
-            this.camera = c;
-            return this;
+        public List<BufferedImage> getPages() {
+            return pages;
+        }
+
+        public int getPageSize() {
+            return pageSize;
         }
     }
 
     /**
-     * The {@link SceneManager} class helps to define a list of {@link Scene} into a game,
-     * and define/set the active one.
-     * <p>
-     * A list of {@link Scene} and default one are loaded from the configuration file thanks to
-     * the {@link SceneManager#load(String)} method, receiving the specific config key/value.
-     * <p>
-     * You can also manually programmatically {@link SceneManager#add(Scene)} a {@link Scene} instance.
-     * <p>
-     * After scenes have been loaded, you can {@link SceneManager#start()} the defautl defined {@link Scene},
-     * or {@link SceneManager#start(String)} a specific one.
-     * <p>
-     * Then you can switch to another {@link Scene} instance with {@link SceneManager#activate(String)}, the one you want
-     * to with its internal name.
+     * An {@link AnimationClip} is a sequence of {@link SpriteAtlas.Sprite} frames, each displayed during
+     * a number of ticks. The frames are precomputed into a table with one entry per tick, so that the frame
+     * to be displayed is a simple array lookup.
      *
      * @author Frédéric Delorme
      */
-    public static class SceneManager {
-        private final KarmaPlatform app;
-        private Scene current;
-        private final Map<String, Scene> scenes = new HashMap<>();
-        private String defaultSceneName = "";
+    public static class AnimationClip {
+        private final String name;
+        private final SpriteAtlas.Sprite[] timeline;
+        private final boolean loop;
 
-        public SceneManager(KarmaPlatform app) {
-            this.app = app;
+        /**
+         * Create a clip with frames displayed during the same number of ticks.
+         *
+         * @param name          name of the clip.
+         * @param ticksPerFrame number of ticks each frame is displayed.
+         * @param loop          true if the clip restarts after the last frame.
+         * @param frames        the sequence of frames.
+         */
+        public AnimationClip(String name, int ticksPerFrame, boolean loop, SpriteAtlas.Sprite... frames) {
+            this.name = name;
+            this.loop = loop;
+            this.timeline = new SpriteAtlas.Sprite[frames.length * ticksPerFrame];
+            for (int i = 0; i < timeline.length; i++) {
+                timeline[i] = frames[i / ticksPerFrame];
+            }
         }
 
-        public void add(Scene scene) {
-            this.scenes.put(scene.getTitle(), scene);
+        /**
+         * Create a clip from a row of frames into a packed sprite sheet of the {@link SpriteAtlas}.
+         *
+         * @param atlas         the {@link SpriteAtlas} where the sprite sheet has been packed.
+         * @param sheet         name of the sprite sheet.
+         * @param y             vertical position of the frames row into the sheet.
+         * @param frameWidth    width of a frame.
+         * @param frameHeight   height of a frame.
+         * @param count         number of frames.
+         * @param ticksPerFrame number of ticks each frame is displayed.
+         * @param loop          true if the clip restarts after the last frame.
+         * @return the new AnimationClip.
+         */
+        public static AnimationClip fromSheet(SpriteAtlas atlas, String sheet, int y, int frameWidth, int frameHeight,
+                                              int count, int ticksPerFrame, boolean loop) {
+            String name = sheet + "_" + y;
+            SpriteAtlas.Sprite[] frames = new SpriteAtlas.Sprite[count];
+            for (int i = 0; i < count; i++) {
+                frames[i] = atlas.define(name + "_" + i, sheet, i * frameWidth, y, frameWidth, frameHeight);
+            }
+            return new AnimationClip(name, ticksPerFrame, loop, frames);
         }
 
-        public void start() {
-            if (Optional.ofNullable(current).isEmpty()) {
-                start(defaultSceneName.isEmpty() ? "init" : defaultSceneName);
-            }
+        /**
+         * Retrieve the frame to be displayed after a number of ticks.
+         *
+         * @param ticks the number of ticks since the clip started.
+         * @return the frame to be displayed.
+         */
+        public SpriteAtlas.Sprite frameAt(long ticks) {
+            int i = loop ? (int) (ticks % timeline.length) : (int) Math.min(ticks, timeline.length - 1);
+            return timeline[i];
         }
 
-        public void start(String sceneName) {
-            if (Optional.ofNullable(current).isEmpty() || !current.getTitle().equals(sceneName)) {
-                this.current = scenes.get(sceneName);
-            }
-            this.current.clearEntities();
-            this.current.create(app);
-            this.current.initialize(app);
+        public String getName() {
+            return name;
         }
 
-        public void activate(String name) {
-            if (Optional.ofNullable(this.current).isPresent()) {
-                this.current.dispose(app);
-            }
-            start(name);
+        public int getDuration() {
+            return timeline.length;
         }
+    }
 
-        public Scene getCurrent() {
-            return this.current;
+    /**
+     * The {@link Animation} defines the {@link AnimationClip} for each {@link AnimationState}, and can be shared
+     * by any number of {@link Entity}: an {@link Entity} only keeps its current state and the tick it started at.
+     * <p>
+     * The state is selected from the {@link Entity}'s velocity on each {@link Entity#update(double)},
+     * and the frame is computed from the engine tick when drawn. A state without clip plays the
+     * {@link AnimationState#IDLE} one.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class Animation {
+        private final AnimationClip[] clips = new AnimationClip[AnimationState.values().length];
+        private double runThreshold = 0.001;
+        private double jumpThreshold = 0.001;
+
+        public Animation add(AnimationState state, AnimationClip clip) {
+            clips[state.ordinal()] = clip;
+            return this;
         }
 
-        public void load(String strList) {
-            String[] sceneItems = strList.split(",");
-            Arrays.stream(sceneItems).forEach(item -> {
-                String[] attrs = item.split(":");
-                // Create Scene instance according to the defined class.
-                try {
-                    Class<?> sceneClass = Class.forName(attrs[1]);
-                    Constructor<?> cstr = sceneClass.getConstructor(KarmaPlatform.class);
-                    Scene scene = (Scene) cstr.newInstance(this.app);
-                    scenes.put(scene.getTitle(), scene);
-                } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException |
-                         IllegalAccessException | InvocationTargetException e) {
-                    error("Can not create the %s class: %s%n", attrs[1], e.getMessage());
-                }
-            });
+        public Animation setThresholds(double run, double jump) {
+            this.runThreshold = run;
+            this.jumpThreshold = jump;
+            return this;
         }
 
-        public void setDefaultSceneName(String s) {
-            this.defaultSceneName = s;
+        /**
+         * Select the {@link AnimationState} from the {@link Entity}'s velocity.
+         *
+         * @param e the {@link Entity} to be animated.
+         * @return the matching {@link AnimationState}.
+         */
+        public AnimationState select(Entity e) {
+            if (e.velocity.y < -jumpThreshold) {
+                return AnimationState.JUMP;
+            } else if (e.velocity.y > jumpThreshold) {
+                return AnimationState.FALL;
+            } else if (Math.abs(e.velocity.x) > runThreshold) {
+                return AnimationState.RUN;
+            }
+            return AnimationState.IDLE;
         }
 
-        public Collection<Scene> getScenes() {
-            return scenes.values();
+        public AnimationClip getClip(AnimationState state) {
+            AnimationClip c = clips[state.ordinal()];
+            return c != null ? c : clips[AnimationState.IDLE.ordinal()];
         }
 
-        public String getDefaultSceneName() {
-            return defaultSceneName;
+        /**
+         * Retrieve the frame to be drawn for the {@link Entity} at the current tick.
+         *
+         * @param e    the animated {@link Entity}.
+         * @param tick the current engine tick.
+         * @return the frame to be drawn.
+         */
+        public SpriteAtlas.Sprite frameAt(Entity e, long tick) {
+            if (e.animStart < 0) {
+                e.animStart = tick;
+            }
+            return getClip(e.animState).frameAt(tick - e.animStart);
         }
     }
 
     /**
-     * The {@link World} object define the context of the game where any {@link Entity} will move in.
-     * <p>
-     * It is setting the {@link World#playArea}, the default environment {@link World#gravity}
-     * and also a {@link World#disturbances} list of {@link Disturbance}s instance to influence {@link Entity}'s moves.
-     * <p>
-     * You can freely add {@link Disturbance} instance to the {@link World} with {@link World#addDisturbance(Disturbance)}  .
+     * The {@link TextCache} rasterizes outlined texts into images, keyed by (text, font, colors),
+     * to draw a {@link TextObject} with a single blit instead of drawing its string 10 times per frame.
      * <p>
-     * A Default play area and a default gravity are initialized by the default constructor.
+     * The least recently used images are evicted beyond the cache capacity,
+     * and the {@link FontMetrics} are cached per {@link Font}.
      *
      * @author Frédéric Delorme
      */
-    public static class World {
-
-        private Rectangle2D playArea;
-        private Vector2D gravity;
-        private final List<Disturbance> disturbances = new ArrayList<>();
-        private Vector2D velocityMax = new Vector2D(0.1, 0.1);
-        private Vector2D accelerationMax = new Vector2D(0.01, 0.01);
-        private int partitionLevelMax = 4;
-        private int partitionCellPerLevel = 10;
-
+    public static class TextCache {
         /**
-         * Create a {@link World} instance with a default playAre of 1000x1000
-         * and a gravity set the default Earth one: 0,981m/s².
+         * A rasterized outlined text, with its text metrics.
+         * The image has a 1 pixel margin for the outline, and the text baseline is at <code>ascent + 1</code>.
          */
-        public World() {
-            gravity = new Vector2D(0.0, -0.981);
-            playArea = new Rectangle2D.Double(0, 0, 1000, 1000);
-        }
+        public static class CachedText {
+            private final BufferedImage image;
+            private final int ascent;
+            private final int width;
+            private final int height;
+
+            public CachedText(BufferedImage image, int ascent, int width, int height) {
+                this.image = image;
+                this.ascent = ascent;
+                this.width = width;
+                this.height = height;
+            }
 
-        public World setGravity(Vector2D g) {
-            this.gravity = g;
-            return this;
-        }
+            public BufferedImage getImage() {
+                return image;
+            }
 
-        public World setPlayArea(Rectangle2D r) {
-            this.playArea = r;
-            return this;
-        }
+            public int getAscent() {
+                return ascent;
+            }
 
-        public Vector2D getGravity() {
-            return gravity;
-        }
+            public int getWidth() {
+                return width;
+            }
 
-        public Rectangle2D getPlayArea() {
-            return playArea;
+            public int getHeight() {
+                return height;
+            }
         }
 
-        public World addDisturbance(Disturbance p) {
-            disturbances.add(p);
-            return this;
+        private record TextKey(String text, Font font, Color color, Color outline) {
         }
 
-        public List<Disturbance> getDisturbances() {
-            return disturbances;
-        }
+        private final Map<TextKey, CachedText> texts;
+        private final Map<Font, FontMetrics> metrics = new HashMap<>();
+        private final Graphics2D metricsGraphics;
 
-        public Vector2D getVelocityMax() {
-            return velocityMax;
+        public TextCache(int capacity) {
+            this.texts = new LinkedHashMap<>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<TextKey, CachedText> eldest) {
+                    return size() > capacity;
+                }
+            };
+            this.metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+            this.metricsGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         }
 
-        public Vector2D getAccelerationMax() {
-            return accelerationMax;
+        /**
+         * @param f the {@link Font} to retrieve metrics for.
+         * @return the cached {@link FontMetrics} of the {@link Font}.
+         */
+        public FontMetrics getMetrics(Font f) {
+            return metrics.computeIfAbsent(f, metricsGraphics::getFontMetrics);
         }
 
-        public int getPartitioningLevelMax() {
-            return partitionLevelMax;
+        /**
+         * @return the default {@link Font} of a {@link Graphics2D}, for the texts without their own font.
+         */
+        public Font getDefaultFont() {
+            return metricsGraphics.getFont();
         }
 
-        public int getPartitioningCellPerLevel() {
+        /**
+         * Retrieve the rasterized outlined text, rendering it if not already in cache.
+         *
+         * @param text    the text to be rendered.
+         * @param font    the {@link Font} to render the text with.
+         * @param color   the text {@link Color}.
+         * @param outline the outline {@link Color}.
+         * @return the {@link CachedText}.
+         */
+        public CachedText get(String text, Font font, Color color, Color outline) {
+            return texts.computeIfAbsent(new TextKey(text, font, color, outline), this::render);
+        }
+
+        private CachedText render(TextKey k) {
+            FontMetrics fm = getMetrics(k.font());
+            int width = fm.stringWidth(k.text());
+            BufferedImage img = new BufferedImage(Math.max(width + 2, 1), fm.getHeight() + 2, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = img.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(k.font());
+            int baseline = fm.getAscent() + 1;
+            g.setColor(k.outline());
+            for (int dx = 0; dx < 3; dx++) {
+                for (int dy = 0; dy < 3; dy++) {
+                    g.drawString(k.text(), dx, baseline - 1 + dy);
+                }
+            }
+            g.setColor(k.color());
+            g.drawString(k.text(), 1, baseline);
+            g.dispose();
+            return new CachedText(img, fm.getAscent(), width, fm.getHeight());
+        }
+
+        public int size() {
+            return texts.size();
+        }
+
+        public void clear() {
+            texts.clear();
+        }
+    }
+
+    /**
+     * The {@link TextObject} displays a text, or a value formatted with {@link TextObject#setFormat(String)}.
+     * <p>
+     * The value is formatted lazily: {@link TextObject#setValue(Object)} only marks the text as dirty if the value
+     * changed, and the text is formatted when read at draw time. Formats with a single integer field
+     * (like <code>%d</code>, <code>%5d</code> or <code>Score: %05d</code>) are formatted into a reused
+     * buffer, without going through {@link String#format(String, Object...)}.
+     */
+    public static class TextObject extends Entity {
+        private String text;
+        private String format = "";
+        private Color textColor;
+        private Font font;
+        private Object value;
+        private int intValue;
+        private boolean hasIntValue = false;
+        private boolean textDirty = false;
+        /**
+         * Parsed single integer field format: prefix, padding char, width and suffix.
+         */
+        private boolean intFormat = false;
+        private String formatPrefix = "";
+        private String formatSuffix = "";
+        private char formatPad = ' ';
+        private int formatWidth = 0;
+        private final StringBuilder formatted = new StringBuilder(16);
+        /**
+         * The rasterized text from the {@link TextCache}, reset when text, font or color change.
+         */
+        private TextCache.CachedText rendered;
+
+        public TextObject(String name) {
+            super(name);
+            setPhysicType(PhysicType.NONE);
+            this.textColor = Color.WHITE;
+            this.text = "EMPTY";
+        }
+
+        public TextObject setText(String t) {
+            this.textDirty = false;
+            if (!Objects.equals(t, this.text)) {
+                this.text = t;
+                this.rendered = null;
+            }
+            return this;
+        }
+
+        /**
+         * @return the text, formatted from the value if it changed since the last call.
+         */
+        public String getText() {
+            if (textDirty) {
+                textDirty = false;
+                if (intFormat && hasIntValue) {
+                    formatInt();
+                    if (!text.contentEquals(formatted)) {
+                        this.text = formatted.toString();
+                        this.rendered = null;
+                    }
+                } else {
+                    setText(String.format(format, getValue()));
+                }
+            }
+            return text;
+        }
+
+        public TextObject setFormat(String f) {
+            this.format = f;
+            parseFormat(f);
+            this.textDirty = !f.isEmpty() && (hasIntValue || value != null);
+            return this;
+        }
+
+        /**
+         * Detect a format with a single integer field (<code>%[0][width]d</code>) to use the fast path.
+         */
+        private void parseFormat(String f) {
+            intFormat = false;
+            int start = f.indexOf('%');
+            if (start < 0 || f.indexOf('%', start + 1) >= 0) {
+                return;
+            }
+            int i = start + 1;
+            char pad = ' ';
+            if (i < f.length() && f.charAt(i) == '0') {
+                pad = '0';
+                i++;
+            }
+            int width = 0;
+            while (i < f.length() && Character.isDigit(f.charAt(i))) {
+                width = width * 10 + (f.charAt(i++) - '0');
+            }
+            if (i < f.length() && f.charAt(i) == 'd') {
+                intFormat = true;
+                formatPrefix = f.substring(0, start);
+                formatSuffix = f.substring(i + 1);
+                formatPad = pad;
+                formatWidth = width;
+            }
+        }
+
+        /**
+         * Format the integer value into the reused buffer, the same way {@link String#format(String, Object...)} does.
+         */
+        private void formatInt() {
+            formatted.setLength(0);
+            formatted.append(formatPrefix);
+            long v = intValue;
+            boolean negative = v < 0;
+            long abs = Math.abs(v);
+            int digits = 1;
+            for (long n = abs; n >= 10; n /= 10) {
+                digits++;
+            }
+            int padding = formatWidth - digits - (negative ? 1 : 0);
+            if (formatPad == ' ') {
+                for (int i = 0; i < padding; i++) {
+                    formatted.append(' ');
+                }
+            }
+            if (negative) {
+                formatted.append('-');
+            }
+            if (formatPad == '0') {
+                for (int i = 0; i < padding; i++) {
+                    formatted.append('0');
+                }
+            }
+            formatted.append(abs);
+            formatted.append(formatSuffix);
+        }
+
+        public String getFormat() {
+            return format;
+        }
+
+        public TextObject setTextColor(Color tc) {
+            this.textColor = tc;
+            this.rendered = null;
+            return this;
+        }
+
+        public Color getTextColor() {
+            return this.textColor;
+        }
+
+        public TextObject setFont(Font f) {
+            this.font = f;
+            this.rendered = null;
+            return this;
+        }
+
+        public Font getFont() {
+            return font;
+        }
+
+        public TextObject setValue(Object v) {
+            if (v instanceof Integer i) {
+                return setValue(i.intValue());
+            }
+            if (hasIntValue || !Objects.equals(v, this.value)) {
+                this.value = v;
+                this.hasIntValue = false;
+                this.textDirty = !format.isEmpty();
+            }
+            return this;
+        }
+
+        /**
+         * Set an integer value, without boxing it.
+         *
+         * @param v the new value.
+         * @return this updated TextObject (thanks to fluent API).
+         */
+        public TextObject setValue(int v) {
+            if (!hasIntValue || v != this.intValue) {
+                this.intValue = v;
+                this.hasIntValue = true;
+                this.value = null;
+                this.textDirty = !format.isEmpty();
+            }
+            return this;
+        }
+
+        public Object getValue() {
+            return hasIntValue ? Integer.valueOf(intValue) : value;
+        }
+
+        public boolean isTextDirty() {
+            return textDirty;
+        }
+
+        /**
+         * The text box is above the baseline at the text position.
+         */
+        @Override
+        protected void computeGeometry() {
+            super.computeGeometry();
+            super.box.setFrame(position.x, position.y - h, w, h);
+        }
+    }
+
+    public interface Scene {
+        String getTitle();
+
+        Camera getCamera();
+
+        /**
+         * Create the {@link Scene}'s entities. In asynchronous mode, this is called on the scene loader thread
+         * while the previous {@link Scene} is still running: the {@link World} must only be changed through the
+         * staging one given by the {@link Scene} (see {@link AbstractScene#getWorld()}), and random values must
+         * be drawn from its own generator (see {@link AbstractScene#getRandom()}).
+         *
+         * @param app the parent {@link KarmaPlatform} instance.
+         */
+        void create(KarmaPlatform app);
+
+        /**
+         * Called on the game thread just before {@link Scene#create(KarmaPlatform)}.
+         *
+         * @param app    the parent {@link KarmaPlatform} instance.
+         * @param random the random generator of this {@link Scene}, derived from the platform's one.
+         * @param staged true if the {@link World} changes must be staged until {@link Scene#endCreate(KarmaPlatform)}.
+         */
+        default void beginCreate(KarmaPlatform app, Random random, boolean staged) {
+        }
+
+        /**
+         * Called on the game thread once {@link Scene#create(KarmaPlatform)} is done, just before the {@link Scene}
+         * becomes the current one, to apply its staged {@link World} changes.
+         *
+         * @param app the parent {@link KarmaPlatform} instance.
+         */
+        default void endCreate(KarmaPlatform app) {
+        }
+
+        default void initialize(KarmaPlatform app) {
+        }
+
+        default void input(KarmaPlatform app) {
+
+        }
+
+        default void update(KarmaPlatform app, double d) {
+        }
+
+        default void draw(KarmaPlatform app, Graphics2D g) {
+        }
+
+        /**
+         * Copy the state drawn by {@link Scene#draw(KarmaPlatform, Graphics2D, Map)} (e.g. the HUD values)
+         * into a {@link RenderFrame}. This is called on the game thread at the end of a tick.
+         *
+         * @param state the state map of the {@link RenderFrame}.
+         */
+        default void capture(Map<String, Object> state) {
+        }
+
+        /**
+         * Draw the {@link Scene} from its state copied by {@link Scene#capture(Map)}. In threaded rendering mode,
+         * this is called on the render thread, and the live entities must not be read. By default, it draws
+         * the live state with {@link Scene#draw(KarmaPlatform, Graphics2D)}.
+         *
+         * @param app   the parent {@link KarmaPlatform} instance.
+         * @param g     the {@link Graphics2D} API to draw with.
+         * @param state the state copied by {@link Scene#capture(Map)}.
+         */
+        default void draw(KarmaPlatform app, Graphics2D g, Map<String, Object> state) {
+            draw(app, g);
+        }
+
+        default void dispose(KarmaPlatform app) {
+        }
+
+        void addEntity(KarmaPlatform.Entity e);
+
+        Collection<Entity> getEntities();
+
+        Entity getEntity(String entityName);
+
+        /**
+         * Remove an {@link Entity} from the {@link Scene}.
+         *
+         * @param e the Entity to be removed.
+         */
+        default void removeEntity(Entity e) {
+            getEntities().remove(e);
+        }
+
+        void clearEntities();
+
+        default void onKeyReleased(KeyEvent ke) {
+        }
+
+        String getName();
+    }
+
+    /**
+     * The Default {@link Scene} interaction implementation to provide :
+     * <ul>
+     *     <li>a list {@link Entity} for the scene,</li>
+     *     <li>a default {@link Camera}</li>
+     *     <li>and {@link World} object</li>
+     * </ul>
+     *  to let the physical computation start.
+     *
+     * @author Frédéric Delorme
+     */
+    public static abstract class AbstractScene implements KarmaPlatform.Scene {
+
+        private final Map<String, KarmaPlatform.Entity> entities = new ConcurrentHashMap<>();
+        private final KarmaPlatform.World world;
+        private KarmaPlatform.World staging;
+        private Random random = new SimulationRandom();
+        private KarmaPlatform.Camera camera;
+
+        public AbstractScene(KarmaPlatform app) {
+            this.world = app.getWorld();
+        }
+
+        @Override
+        public void beginCreate(KarmaPlatform app, Random random, boolean staged) {
+            this.random = random;
+            this.staging = staged ? world.createStaging() : null;
+        }
+
+        @Override
+        public void endCreate(KarmaPlatform app) {
+            if (Optional.ofNullable(staging).isPresent()) {
+                world.applyStaging(staging);
+                staging = null;
+            }
+        }
+
+        public void addEntity(KarmaPlatform.Entity e) {
+            entities.put(e.name, e);
+        }
+
+        /**
+         * @return the {@link World} of the platform, or the staging one while this {@link Scene} is being created
+         * on the scene loader thread.
+         */
+        public KarmaPlatform.World getWorld() {
+            return Optional.ofNullable(staging).isPresent() ? staging : this.world;
+        }
+
+        /**
+         * @return the random generator of this {@link Scene}, seeded from the platform's one at creation.
+         */
+        public Random getRandom() {
+            return random;
+        }
+
+        @Override
+        public void removeEntity(KarmaPlatform.Entity e) {
+            entities.remove(e.name, e);
+        }
+
+        public void clearEntities() {
+            entities.clear();
+        }
+
+        public KarmaPlatform.Entity getEntity(String name) {
+            return entities.get(name);
+        }
+
+        public Collection<KarmaPlatform.Entity> getEntities() {
+            return entities.values();
+        }
+
+        public KarmaPlatform.Camera getCamera() {
+            return this.camera;
+        }
+
+        public KarmaPlatform.Scene setCamera(KarmaPlatform.Camera c) {
+            this.camera = c;
+            return this;
+        }
+    }
+
+    /**
+     * The {@link SceneManager} class helps to define a list of {@link Scene} into a game,
+     * and define/set the active one.
+     * <p>
+     * A list of {@link Scene} and default one are loaded from the configuration file thanks to
+     * the {@link SceneManager#load(String)} method, receiving the specific config key/value.
+     * <p>
+     * You can also manually programmatically {@link SceneManager#add(Scene)} a {@link Scene} instance.
+     * <p>
+     * After scenes have been loaded, you can {@link SceneManager#start()} the defautl defined {@link Scene},
+     * or {@link SceneManager#start(String)} a specific one.
+     * <p>
+     * Then you can switch to another {@link Scene} instance with {@link SceneManager#activate(String)}, the one you want
+     * to with its internal name.
+     * <p>
+     * In asynchronous mode (<code>app.scenes.async</code>), the next {@link Scene} is created on a background thread
+     * while the current one (or the optional transition one, <code>app.scenes.transition</code>) is still running,
+     * and is swapped in by {@link SceneManager#swap()} at the next tick boundary.
+     * With <code>app.scenes.cache</code>, a disposed {@link Scene} keeps its entities and is reactivated
+     * without calling its {@link Scene#create(KarmaPlatform)} again.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class SceneManager {
+        private final KarmaPlatform app;
+        private Scene current;
+        private final Map<String, Scene> scenes = new HashMap<>();
+        private String defaultSceneName = "";
+        private String transitionSceneName = "";
+        private boolean async = false;
+        private boolean cacheEnabled = false;
+        private final Set<String> cached = new HashSet<>();
+        private ExecutorService loader;
+        private Future<Scene> pending;
+
+        public SceneManager(KarmaPlatform app) {
+            this.app = app;
+        }
+
+        public void add(Scene scene) {
+            this.scenes.put(scene.getTitle(), scene);
+        }
+
+        public void start() {
+            if (Optional.ofNullable(current).isEmpty()) {
+                start(defaultSceneName.isEmpty() ? "init" : defaultSceneName);
+            }
+        }
+
+        public void start(String sceneName) {
+            if (Optional.ofNullable(current).isEmpty() || !current.getTitle().equals(sceneName)) {
+                this.current = scenes.get(sceneName);
+            }
+            // a cached scene already has its entities.
+            if (!cached.remove(sceneName)) {
+                this.current.clearEntities();
+                this.current.beginCreate(app, new SimulationRandom(app.getRandom().nextLong()), false);
+                this.current.create(app);
+                this.current.endCreate(app);
+            }
+            started();
+        }
+
+        /**
+         * Initialize the just activated current {@link Scene} and reset the engine states bound to the previous one.
+         */
+        private void started() {
+            if (Optional.ofNullable(app.streamer).isPresent()) {
+                app.streamer.reset();
+            }
+            app.contacts.clear();
+            this.current.initialize(app);
+            // keep the initial state for instant resets.
+            app.initialSnapshot.capture(this.current);
+            app.quickSaveSnapshot.clear();
+            if (Optional.ofNullable(app.rewindBuffer).isPresent()) {
+                app.rewindBuffer.reset();
+            }
+        }
+
+        public void activate(String name) {
+            // the running scene can not be created again in the background.
+            if (async && !isCurrent(name)) {
+                prepare(name);
+            } else {
+                deactivate(name);
+                start(name);
+            }
+        }
+
+        /**
+         * Dispose the current {@link Scene}, and keep it in cache if it is not the next one.
+         *
+         * @param nextName name of the {@link Scene} to be activated next.
+         */
+        private void deactivate(String nextName) {
+            if (Optional.ofNullable(this.current).isPresent()) {
+                this.current.dispose(app);
+                if (cacheEnabled && !current.getTitle().equals(nextName)) {
+                    cached.add(current.getTitle());
+                }
+            }
+        }
+
+        private boolean isCurrent(String name) {
+            return Optional.ofNullable(current).isPresent() && current.getTitle().equals(name);
+        }
+
+        /**
+         * Prepare the named {@link Scene} on the background loader thread: its entities are created while
+         * the current {@link Scene} (or the transition one if defined) is still running.
+         * Its {@link World} changes are staged, and its random generator is drawn from the platform's one
+         * on the game thread, so that the running {@link Scene} is not affected by the preparation.
+         * The prepared {@link Scene} will be swapped in at the next tick boundary by {@link SceneManager#swap()}.
+         * <p>
+         * The current {@link Scene} can not be prepared: use {@link SceneManager#activate(String)} to restart it.
+         *
+         * @param name the name of the {@link Scene} to be prepared.
+         */
+        public void prepare(String name) {
+            Scene scene = scenes.get(name);
+            if (Optional.ofNullable(scene).isEmpty()) {
+                error("Unknown scene %s", name);
+                return;
+            }
+            if (isCurrent(name)) {
+                error("Scene %s is running and can not be prepared", name);
+                return;
+            }
+            if (Optional.ofNullable(pending).isPresent()) {
+                return;
+            }
+            if (cached.contains(name)) {
+                pending = CompletableFuture.completedFuture(scene);
+                return;
+            }
+            if (Optional.ofNullable(loader).isEmpty()) {
+                loader = Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "karma-scene-loader");
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            scene.beginCreate(app, new SimulationRandom(app.getRandom().nextLong()), true);
+            pending = loader.submit(() -> {
+                scene.clearEntities();
+                scene.create(app);
+                return scene;
+            });
+            if (!transitionSceneName.isEmpty() && !isCurrent(transitionSceneName)) {
+                deactivate(transitionSceneName);
+                start(transitionSceneName);
+            }
+        }
+
+        /**
+         * Swap the prepared {@link Scene} in as the current one, if its preparation is done.
+         * This must be called on the game thread, between two ticks.
+         *
+         * @return true if a new {@link Scene} has been activated.
+         */
+        public boolean swap() {
+            if (Optional.ofNullable(pending).isEmpty() || !pending.isDone()) {
+                return false;
+            }
+            Scene next;
+            try {
+                next = pending.get();
+            } catch (InterruptedException | ExecutionException e) {
+                error("Unable to prepare the scene: %s", e.getMessage());
+                return false;
+            } finally {
+                pending = null;
+            }
+            deactivate(next.getTitle());
+            // a cached scene has not been created again.
+            if (!cached.remove(next.getTitle())) {
+                next.endCreate(app);
+            }
+            this.current = next;
+            started();
+            return true;
+        }
+
+        public boolean isPreparing() {
+            return Optional.ofNullable(pending).isPresent();
+        }
+
+        public SceneManager setAsync(boolean async) {
+            this.async = async;
+            return this;
+        }
+
+        public SceneManager setCacheEnabled(boolean cacheEnabled) {
+            this.cacheEnabled = cacheEnabled;
+            if (!cacheEnabled) {
+                cached.clear();
+            }
+            return this;
+        }
+
+        public SceneManager setTransitionSceneName(String transitionSceneName) {
+            this.transitionSceneName = transitionSceneName;
+            return this;
+        }
+
+        public boolean isCached(String name) {
+            return cached.contains(name);
+        }
+
+        /**
+         * Stop the background loader thread.
+         */
+        public void dispose() {
+            if (Optional.ofNullable(loader).isPresent()) {
+                loader.shutdownNow();
+                loader = null;
+            }
+        }
+
+        public Scene getCurrent() {
+            return this.current;
+        }
+
+        public void load(String strList) {
+            String[] sceneItems = strList.split(",");
+            Arrays.stream(sceneItems).forEach(item -> {
+                String[] attrs = item.split(":");
+                // Create Scene instance according to the defined class.
+                try {
+                    Class<?> sceneClass = Class.forName(attrs[1]);
+                    Constructor<?> cstr = sceneClass.getConstructor(KarmaPlatform.class);
+                    Scene scene = (Scene) cstr.newInstance(this.app);
+                    scenes.put(scene.getTitle(), scene);
+                } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException |
+                         IllegalAccessException | InvocationTargetException e) {
+                    error("Can not create the %s class: %s%n", attrs[1], e.getMessage());
+                }
+            });
+        }
+
+        public void setDefaultSceneName(String s) {
+            this.defaultSceneName = s;
+        }
+
+        public Collection<Scene> getScenes() {
+            return scenes.values();
+        }
+
+        public String getDefaultSceneName() {
+            return defaultSceneName;
+        }
+    }
+
+    /**
+     * The {@link World} object define the context of the game where any {@link Entity} will move in.
+     * <p>
+     * It is setting the {@link World#playArea}, the default environment {@link World#gravity}
+     * and also a {@link World#disturbances} list of {@link Disturbance}s instance to influence {@link Entity}'s moves.
+     * <p>
+     * You can freely add {@link Disturbance} instance to the {@link World} with {@link World#addDisturbance(Disturbance)}  .
+     * <p>
+     * A Default play area and a default gravity are initialized by the default constructor.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class World {
+
+        private Rectangle2D playArea;
+        private Vector2D gravity;
+        private final List<Disturbance> disturbances = new CopyOnWriteArrayList<>();
+        private final DisturbanceIndex disturbanceIndex = new DisturbanceIndex();
+        private volatile boolean disturbanceIndexDirty = false;
+        private final List<ParticleSystem> particleSystems = new CopyOnWriteArrayList<>();
+        private Vector2D velocityMax = new Vector2D(0.1, 0.1);
+        private Vector2D accelerationMax = new Vector2D(0.01, 0.01);
+        private int partitionLevelMax = 4;
+        private int partitionCellPerLevel = 10;
+        private int chunkWidth = 0, chunkHeight = 0;
+        private int chunkActiveRadius = 1;
+        private int chunkMarginRadius = 1;
+
+        /**
+         * Create a {@link World} instance with a default playAre of 1000x1000
+         * and a gravity set the default Earth one: 0,981m/s².
+         */
+        public World() {
+            gravity = new Vector2D(0.0, -0.981);
+            playArea = new Rectangle2D.Double(0, 0, 1000, 1000);
+        }
+
+        public World setGravity(Vector2D g) {
+            this.gravity = g;
+            return this;
+        }
+
+        public World setPlayArea(Rectangle2D r) {
+            this.playArea = r;
+            return this;
+        }
+
+        public Vector2D getGravity() {
+            return gravity;
+        }
+
+        public Rectangle2D getPlayArea() {
+            return playArea;
+        }
+
+        public World addDisturbance(Disturbance p) {
+            disturbances.add(p);
+            disturbanceIndexDirty = true;
+            return this;
+        }
+
+        /**
+         * Retrieve the summed force of all the {@link Disturbance}s covering the (x,y) point.
+         * The {@link DisturbanceIndex} is (re)built on the first request after a {@link Disturbance} has been added.
+         *
+         * @param x the horizontal position
+         * @param y the vertical position
+         * @return the combined force vector, or null if no {@link Disturbance} is covering this point.
+         */
+        public Vector2D getDisturbanceForce(double x, double y) {
+            if (disturbanceIndexDirty || disturbanceIndex.size() != disturbances.size()) {
+                disturbanceIndex.build(disturbances);
+                disturbanceIndexDirty = false;
+            }
+            return disturbanceIndex.find(x, y);
+        }
+
+        public List<Disturbance> getDisturbances() {
+            return disturbances;
+        }
+
+        public World addParticleSystem(ParticleSystem ps) {
+            particleSystems.add(ps);
+            return this;
+        }
+
+        public List<ParticleSystem> getParticleSystems() {
+            return particleSystems;
+        }
+
+        public Vector2D getVelocityMax() {
+            return velocityMax;
+        }
+
+        public Vector2D getAccelerationMax() {
+            return accelerationMax;
+        }
+
+        public int getPartitioningLevelMax() {
+            return partitionLevelMax;
+        }
+
+        public int getPartitioningCellPerLevel() {
             return partitionCellPerLevel;
         }
+
+        /**
+         * Define the chunk size used to stream the world around the {@link Camera}.
+         * A zero size deactivates the streaming.
+         *
+         * @param cw the chunk width
+         * @param ch the chunk height
+         * @return this updated World (thanks to fluent API).
+         */
+        public World setChunkSize(int cw, int ch) {
+            this.chunkWidth = cw;
+            this.chunkHeight = ch;
+            return this;
+        }
+
+        public World setChunkRadius(int active, int margin) {
+            this.chunkActiveRadius = active;
+            this.chunkMarginRadius = margin;
+            return this;
+        }
+
+        public boolean isStreamingEnabled() {
+            return chunkWidth > 0 && chunkHeight > 0;
+        }
+
+        public int getChunkWidth() {
+            return chunkWidth;
+        }
+
+        public int getChunkHeight() {
+            return chunkHeight;
+        }
+
+        public int getChunkActiveRadius() {
+            return chunkActiveRadius;
+        }
+
+        public int getChunkMarginRadius() {
+            return chunkMarginRadius;
+        }
+
+        /**
+         * Create a staging copy of this {@link World}'s settings, without any {@link Disturbance} nor
+         * {@link ParticleSystem}. A {@link Scene} created out of the game thread changes this copy,
+         * which is later applied on the game thread by {@link World#applyStaging(World)}.
+         *
+         * @return a new staging World.
+         */
+        public World createStaging() {
+            World staging = new World()
+                .setPlayArea((Rectangle2D) playArea.clone())
+                .setGravity(new Vector2D(gravity.x, gravity.y))
+                .setChunkSize(chunkWidth, chunkHeight)
+                .setChunkRadius(chunkActiveRadius, chunkMarginRadius);
+            staging.velocityMax = new Vector2D(velocityMax.x, velocityMax.y);
+            staging.accelerationMax = new Vector2D(accelerationMax.x, accelerationMax.y);
+            staging.partitionLevelMax = partitionLevelMax;
+            staging.partitionCellPerLevel = partitionCellPerLevel;
+            return staging;
+        }
+
+        /**
+         * Apply the settings, {@link Disturbance}s and {@link ParticleSystem}s of a staging {@link World}
+         * created by {@link World#createStaging()} into this one.
+         *
+         * @param staging the staging World to be applied.
+         */
+        public void applyStaging(World staging) {
+            setPlayArea(staging.playArea);
+            setGravity(staging.gravity);
+            setChunkSize(staging.chunkWidth, staging.chunkHeight);
+            setChunkRadius(staging.chunkActiveRadius, staging.chunkMarginRadius);
+            velocityMax = staging.velocityMax;
+            accelerationMax = staging.accelerationMax;
+            partitionLevelMax = staging.partitionLevelMax;
+            partitionCellPerLevel = staging.partitionCellPerLevel;
+            staging.disturbances.forEach(this::addDisturbance);
+            staging.particleSystems.forEach(this::addParticleSystem);
+        }
+    }
+
+    /**
+     * The {@link WorldStreamer} divides the {@link World} into chunks and keeps only the neighbourhood
+     * of the {@link Camera} in the current {@link Scene}:
+     * <ul>
+     *     <li>chunks within the active radius are {@link ChunkState#ACTIVE} and simulated,</li>
+     *     <li>chunks in the margin ring are {@link ChunkState#FROZEN}: loaded, drawn and colliding, but not simulated,</li>
+     *     <li>any other chunk is {@link ChunkState#UNLOADED}: its entities are parked out of the {@link Scene}.</li>
+     * </ul>
+     * Parked chunks are owned by a background thread, which prepares the chunks to be loaded;
+     * they are handed back to the game thread at the start of the next tick by {@link WorldStreamer#update(Scene, Camera)}.
+     * <p>
+     * Only the moving part of the level is streamed: {@link Entity} with a {@link PhysicType#NONE} physic type,
+     * the static ones (stuck to the camera) and the camera target always stay in the {@link Scene}.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class WorldStreamer implements Runnable {
+        public enum ChunkState {
+            ACTIVE,
+            FROZEN,
+            UNLOADED
+        }
+
+        private record Batch(int generation, List<Entity> entities) {
+        }
+
+        /**
+         * Number of ticks between two full scans of the scene entities, even if the camera did not change of chunk.
+         */
+        private static final int SCAN_PERIOD = 30;
+
+        private final World world;
+        private final BlockingQueue<Runnable> requests = new LinkedBlockingQueue<>();
+        private final Queue<Batch> loaded = new ConcurrentLinkedQueue<>();
+        /**
+         * Parked entities per chunk, only accessed by the streaming thread.
+         */
+        private final Map<Long, List<Entity>> store = new HashMap<>();
+        private int generation = 0;
+        private long cameraChunk = Long.MIN_VALUE;
+        private int ticks = 0;
+        private Thread thread;
+        private volatile boolean running;
+
+        public WorldStreamer(World world) {
+            this.world = world;
+        }
+
+        public void start() {
+            running = true;
+            thread = new Thread(this, "karma-world-streamer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        public void stop() {
+            running = false;
+            if (Optional.ofNullable(thread).isPresent()) {
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Drop all the parked chunks, e.g. when the {@link Scene} is (re)created.
+         */
+        public void reset() {
+            generation++;
+            cameraChunk = Long.MIN_VALUE;
+            requests.add(store::clear);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    requests.take().run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+
+        /**
+         * Called by the game thread at the start of each tick: attach the chunks prepared by the streaming thread,
+         * update the frozen status of the entities and hand the out of range entities to the streaming thread.
+         *
+         * @param scene the current {@link Scene}.
+         * @param cam   the {@link Scene}'s {@link Camera}.
+         * @return the entities removed from the {@link Scene} by this update.
+         */
+        public List<Entity> update(Scene scene, Camera cam) {
+            boolean scan = ++ticks % SCAN_PERIOD == 0;
+            Batch batch;
+            while ((batch = loaded.poll()) != null) {
+                if (batch.generation() == generation) {
+                    batch.entities().forEach(scene::addEntity);
+                    scan = true;
+                }
+            }
+            if (Optional.ofNullable(cam).isEmpty() || Optional.ofNullable(cam.getViewport()).isEmpty()) {
+                return List.of();
+            }
+            int ccx = (int) Math.floor(cam.getViewport().getCenterX() / world.getChunkWidth());
+            int ccy = (int) Math.floor(cam.getViewport().getCenterY() / world.getChunkHeight());
+            long key = chunkKey(ccx, ccy);
+            if (key == cameraChunk && !scan) {
+                return List.of();
+            }
+            cameraChunk = key;
+            List<Entity> unloaded = new ArrayList<>();
+            for (Entity e : scene.getEntities()) {
+                if (!isStreamed(e, cam)) {
+                    continue;
+                }
+                ChunkState state = getState(e, ccx, ccy);
+                if (state == ChunkState.UNLOADED) {
+                    unloaded.add(e);
+                } else {
+                    e.setFrozen(state == ChunkState.FROZEN);
+                }
+            }
+            unloaded.forEach(scene::removeEntity);
+            int gen = generation;
+            requests.add(() -> prepare(gen, unloaded, ccx, ccy));
+            return unloaded;
+        }
+
+        /**
+         * Streaming thread side: park the unloaded entities and collect the chunks now in range.
+         */
+        private void prepare(int gen, List<Entity> unloaded, int ccx, int ccy) {
+            unloaded.forEach(e -> store.computeIfAbsent(chunkKey(chunkX(e), chunkY(e)), k -> new ArrayList<>()).add(e));
+            List<Entity> toLoad = new ArrayList<>();
+            int r = world.getChunkActiveRadius() + world.getChunkMarginRadius();
+            for (int cy = ccy - r; cy <= ccy + r; cy++) {
+                for (int cx = ccx - r; cx <= ccx + r; cx++) {
+                    List<Entity> chunk = store.remove(chunkKey(cx, cy));
+                    if (Optional.ofNullable(chunk).isPresent()) {
+                        toLoad.addAll(chunk);
+                    }
+                }
+            }
+            if (!toLoad.isEmpty()) {
+                toLoad.forEach(e -> e.setFrozen(getState(e, ccx, ccy) != ChunkState.ACTIVE));
+                loaded.add(new Batch(gen, toLoad));
+            }
+        }
+
+        private boolean isStreamed(Entity e, Camera cam) {
+            return !e.getPhysicType().equals(PhysicType.NONE) && !e.isStatic() && e != cam.getTarget();
+        }
+
+        public ChunkState getState(Entity e, int ccx, int ccy) {
+            int dist = Math.max(Math.abs(chunkX(e) - ccx), Math.abs(chunkY(e) - ccy));
+            if (dist <= world.getChunkActiveRadius()) {
+                return ChunkState.ACTIVE;
+            } else if (dist <= world.getChunkActiveRadius() + world.getChunkMarginRadius()) {
+                return ChunkState.FROZEN;
+            }
+            return ChunkState.UNLOADED;
+        }
+
+        private int chunkX(Entity e) {
+            return (int) Math.floor((e.position.x + e.w * 0.5) / world.getChunkWidth());
+        }
+
+        private int chunkY(Entity e) {
+            return (int) Math.floor((e.position.y + e.h * 0.5) / world.getChunkHeight());
+        }
+
+        private static long chunkKey(int cx, int cy) {
+            return ((long) cx << 32) | (cy & 0xffffffffL);
+        }
+    }
+
+    public static class Disturbance extends Entity {
+
+        /**
+         * Create a new {@link Disturbance} with a name.
+         * The internal {@link Entity#id} for this {@link Entity} will be created based on the
+         * internal {@link Entity#index} counter.
+         *
+         * @param name the name for this new Entity.
+         */
+        public Disturbance(String name) {
+            super(name);
+            this.setPhysicType(PhysicType.NONE);
+            this.setType(EntityType.RECTANGLE);
+            setForegroundColor(null);
+            setBackgroundColor(null);
+        }
+    }
+
+    /**
+     * The {@link DisturbanceIndex} is a static spatial index of the {@link World}'s {@link Disturbance}s.
+     * <p>
+     * The edges of all the {@link Disturbance} areas split the space into a grid of regions,
+     * each region being covered by a fixed set of {@link Disturbance}s.
+     * The forces of those {@link Disturbance}s are summed once per region at build time,
+     * and a lookup is then a binary search on each axis, without any allocation.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class DisturbanceIndex {
+        private double[] xs = new double[0];
+        private double[] ys = new double[0];
+        private Vector2D[] regions = new Vector2D[0];
+        private int size = 0;
+
+        /**
+         * Build the index regions from the list of {@link Disturbance}s.
+         *
+         * @param disturbances the list of {@link Disturbance}s to be indexed.
+         */
+        public void build(List<Disturbance> disturbances) {
+            size = disturbances.size();
+            xs = disturbances.stream()
+                .flatMapToDouble(dist -> Arrays.stream(new double[]{dist.getBox().getMinX(), dist.getBox().getMaxX()}))
+                .sorted().distinct().toArray();
+            ys = disturbances.stream()
+                .flatMapToDouble(dist -> Arrays.stream(new double[]{dist.getBox().getMinY(), dist.getBox().getMaxY()}))
+                .sorted().distinct().toArray();
+            int nx = Math.max(xs.length - 1, 0);
+            int ny = Math.max(ys.length - 1, 0);
+            regions = new Vector2D[nx * ny];
+            for (Disturbance dist : disturbances) {
+                Vector2D force = new Vector2D(dist.getForceX(), dist.getForceY());
+                int ix1 = Arrays.binarySearch(xs, dist.getBox().getMaxX());
+                int iy1 = Arrays.binarySearch(ys, dist.getBox().getMaxY());
+                for (int iy = Arrays.binarySearch(ys, dist.getBox().getMinY()); iy < iy1; iy++) {
+                    for (int ix = Arrays.binarySearch(xs, dist.getBox().getMinX()); ix < ix1; ix++) {
+                        Vector2D r = regions[iy * nx + ix];
+                        regions[iy * nx + ix] = r != null ? r.add(force) : force;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Retrieve the summed force of the region containing the (x,y) point.
+         *
+         * @param x the horizontal position
+         * @param y the vertical position
+         * @return the summed force, or null if the point is not covered by any {@link Disturbance}.
+         */
+        public Vector2D find(double x, double y) {
+            int ix = regionIndex(xs, x);
+            int iy = regionIndex(ys, y);
+            if (ix < 0 || iy < 0) {
+                return null;
+            }
+            return regions[iy * (xs.length - 1) + ix];
+        }
+
+        private static int regionIndex(double[] edges, double v) {
+            if (edges.length < 2 || v < edges[0] || v > edges[edges.length - 1]) {
+                return -1;
+            }
+            int i = Arrays.binarySearch(edges, v);
+            return Math.min(i >= 0 ? i : -i - 2, edges.length - 2);
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The {@link ParticleSystem} is a {@link World} component simulating and drawing a large number of small
+     * visual particles (sparks, dust, smoke, ...) without creating any {@link Entity}.
+     * <p>
+     * Particles are stored as a structure of arrays (position, velocity, life and color), integrated in a tight loop
+     * with the optional {@link World} gravity and {@link Disturbance} forces, and only collide with the
+     * {@link PhysicType#STATIC} entities and the solid tiles of the {@link TileMap}s. A dead particle is replaced by
+     * the last living one, so the living particles always fill the start of the arrays.
+     * <p>
+     * Particles are created by {@link Emitter}s, at a fixed position or attached to an {@link Entity}.
+     * Each {@link Emitter} fades its particles along a color gradient registered into the system palette;
+     * particles are drawn in one batch per palette color.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class ParticleSystem {
+        /**
+         * Number of colors of an {@link Emitter} gradient.
+         */
+        public static final int GRADIENT_STEPS = 8;
+
+        private final String name;
+        private final int capacity;
+        private int count = 0;
+        private final float[] x, y, dx, dy, life, maxLife;
+        private final short[] color, colorBase;
+        private final List<Color> palette = new ArrayList<>();
+        private final List<Emitter> emitters = new ArrayList<>();
+        private final Random random = new Random(0);
+        private boolean gravity = true;
+        private boolean disturbances = true;
+        private boolean collisions = true;
+        private float bounce = 0.3f;
+        private int size = 2;
+        private final Snapshot frame = new Snapshot();
+
+        /**
+         * An {@link Emitter} creates new particles at a given rate (or as a burst),
+         * at its position or at the position of the {@link Entity} it is attached to.
+         */
+        public static class Emitter {
+            private Entity target;
+            private double x, y;
+            private double rate = 0;
+            private double accumulator = 0;
+            private int burst = 0;
+            private double lifeMin = 500, lifeMax = 1000;
+            private double speedMin = 0.05, speedMax = 0.1;
+            private double angle = -Math.PI * 0.5, spread = Math.PI;
+            private Color from = Color.WHITE, to = Color.DARK_GRAY;
+            private int colorBase = 0;
+
+            /**
+             * Attach this {@link Emitter} to an {@link Entity}: particles are emitted from the {@link Entity}'s
+             * position with an offset, and only while the {@link Entity} is active.
+             *
+             * @param e  the Entity to follow.
+             * @param ox horizontal offset from the Entity's position.
+             * @param oy vertical offset from the Entity's position.
+             * @return this updated Emitter (thanks to fluent API).
+             */
+            public Emitter attachTo(Entity e, double ox, double oy) {
+                this.target = e;
+                this.x = ox;
+                this.y = oy;
+                return this;
+            }
+
+            public Emitter setPosition(double x, double y) {
+                this.target = null;
+                this.x = x;
+                this.y = y;
+                return this;
+            }
+
+            /**
+             * @param rate the number of particles emitted per second.
+             * @return this updated Emitter (thanks to fluent API).
+             */
+            public Emitter setRate(double rate) {
+                this.rate = rate;
+                return this;
+            }
+
+            /**
+             * Request a number of particles to be emitted at once on the next update.
+             *
+             * @param n the number of particles.
+             * @return this updated Emitter (thanks to fluent API).
+             */
+            public Emitter burst(int n) {
+                this.burst += n;
+                return this;
+            }
+
+            public Emitter setLife(double min, double max) {
+                this.lifeMin = min;
+                this.lifeMax = max;
+                return this;
+            }
+
+            public Emitter setSpeed(double min, double max) {
+                this.speedMin = min;
+                this.speedMax = max;
+                return this;
+            }
+
+            /**
+             * @param angle  the emission direction, in radians.
+             * @param spread the emission cone width around this direction, in radians.
+             * @return this updated Emitter (thanks to fluent API).
+             */
+            public Emitter setDirection(double angle, double spread) {
+                this.angle = angle;
+                this.spread = spread;
+                return this;
+            }
+
+            /**
+             * Define the color gradient of the particles, from their birth to their death.
+             * This must be set before the Emitter is added to its {@link ParticleSystem}.
+             *
+             * @param from color of a new particle.
+             * @param to   color of a dying particle.
+             * @return this updated Emitter (thanks to fluent API).
+             */
+            public Emitter setColors(Color from, Color to) {
+                this.from = from;
+                this.to = to;
+                return this;
+            }
+        }
+
+        /**
+         * A {@link Snapshot} is a copy of the particles render state (position and color), drawn without
+         * reading the live {@link ParticleSystem}, e.g. by the render thread.
+         */
+        public static class Snapshot {
+            private int count = 0;
+            private int size = 2;
+            private float[] x = new float[0], y = new float[0];
+            private short[] color = new short[0];
+            private Color[] palette = new Color[0];
+            private int[] order = new int[0];
+            private int[] buckets = new int[0];
+
+            public int getCount() {
+                return count;
+            }
+
+            /**
+             * Draw the particles, sorted by color (counting sort on the palette index)
+             * to set each color only once per frame.
+             *
+             * @param g the {@link Graphics2D} API to draw with.
+             */
+            public void draw(Graphics2D g) {
+                if (count == 0) {
+                    return;
+                }
+                if (order.length < count) {
+                    order = new int[x.length];
+                }
+                if (buckets.length < palette.length + 1) {
+                    buckets = new int[palette.length + 1];
+                }
+                Arrays.fill(buckets, 0);
+                for (int i = 0; i < count; i++) {
+                    buckets[color[i] + 1]++;
+                }
+                for (int c = 1; c < buckets.length; c++) {
+                    buckets[c] += buckets[c - 1];
+                }
+                for (int i = 0; i < count; i++) {
+                    order[buckets[color[i]]++] = i;
+                }
+                Object aa = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+                int current = -1;
+                for (int k = 0; k < count; k++) {
+                    int i = order[k];
+                    if (color[i] != current) {
+                        current = color[i];
+                        g.setColor(palette[current]);
+                    }
+                    g.fillRect((int) x[i], (int) y[i], size, size);
+                }
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, aa);
+            }
+        }
+
+        /**
+         * Create a new {@link ParticleSystem}.
+         *
+         * @param name     the name of this ParticleSystem.
+         * @param capacity the maximum number of living particles. New particles are dropped beyond.
+         */
+        public ParticleSystem(String name, int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+            x = new float[capacity];
+            y = new float[capacity];
+            dx = new float[capacity];
+            dy = new float[capacity];
+            life = new float[capacity];
+            maxLife = new float[capacity];
+            color = new short[capacity];
+            colorBase = new short[capacity];
+        }
+
+        /**
+         * Add an {@link Emitter}, registering its color gradient into the palette.
+         *
+         * @param em the Emitter to be added.
+         * @return this updated ParticleSystem (thanks to fluent API).
+         */
+        public ParticleSystem addEmitter(Emitter em) {
+            em.colorBase = palette.size();
+            float[] c1 = em.from.getRGBComponents(null);
+            float[] c2 = em.to.getRGBComponents(null);
+            for (int s = 0; s < GRADIENT_STEPS; s++) {
+                float t = (float) s / (GRADIENT_STEPS - 1);
+                palette.add(new Color(
+                    c1[0] + (c2[0] - c1[0]) * t,
+                    c1[1] + (c2[1] - c1[1]) * t,
+                    c1[2] + (c2[2] - c1[2]) * t,
+                    c1[3] + (c2[3] - c1[3]) * t));
+            }
+            emitters.add(em);
+            return this;
+        }
+
+        public ParticleSystem setGravity(boolean g) {
+            this.gravity = g;
+            return this;
+        }
+
+        public ParticleSystem setDisturbances(boolean d) {
+            this.disturbances = d;
+            return this;
+        }
+
+        public ParticleSystem setCollisions(boolean c) {
+            this.collisions = c;
+            return this;
+        }
+
+        /**
+         * @param bounce the velocity factor kept by a particle bouncing on static geometry.
+         * @return this updated ParticleSystem (thanks to fluent API).
+         */
+        public ParticleSystem setBounce(float bounce) {
+            this.bounce = bounce;
+            return this;
+        }
+
+        public ParticleSystem setSize(int size) {
+            this.size = size;
+            return this;
+        }
+
+        public ParticleSystem setSeed(long seed) {
+            random.setSeed(seed);
+            return this;
+        }
+
+        /**
+         * Create one particle, if the capacity is not reached.
+         *
+         * @return false if the particle has been dropped.
+         */
+        public boolean spawn(double px, double py, double vx, double vy, double lifetime, int colorIndex) {
+            if (count == capacity) {
+                return false;
+            }
+            x[count] = (float) px;
+            y[count] = (float) py;
+            dx[count] = (float) vx;
+            dy[count] = (float) vy;
+            life[count] = (float) lifetime;
+            maxLife[count] = (float) lifetime;
+            color[count] = (short) colorIndex;
+            colorBase[count] = (short) colorIndex;
+            count++;
+            return true;
+        }
+
+        /**
+         * Emit the new particles, then integrate and age all the living ones.
+         *
+         * @param world    the {@link World} providing gravity, {@link Disturbance}s and play area.
+         * @param statics  the boxes of the static geometry, packed as (minX, minY, maxX, maxY) quadruples.
+         * @param nStatics the number of static boxes.
+         * @param tileMaps the {@link TileMap}s with solid tiles.
+         * @param d        the elapsed time since previous update.
+         */
+        public void update(World world, double[] statics, int nStatics, List<TileMap> tileMaps, double d) {
+            for (Emitter em : emitters) {
+                emit(em, d);
+            }
+            float gx = gravity ? (float) (world.getGravity().x * -0.01) : 0;
+            float gy = gravity ? (float) (world.getGravity().y * -0.01) : 0;
+            boolean disturbed = disturbances && !world.getDisturbances().isEmpty();
+            boolean colliding = collisions && (nStatics > 0 || !tileMaps.isEmpty());
+            Rectangle2D area = world.getPlayArea();
+            float fd = (float) d;
+            int last = GRADIENT_STEPS - 1;
+            for (int i = 0; i < count; i++) {
+                life[i] -= fd;
+                if (life[i] <= 0 || !area.contains(x[i], y[i])) {
+                    kill(i--);
+                    continue;
+                }
+                dx[i] += gx;
+                dy[i] += gy;
+                if (disturbed) {
+                    Vector2D force = world.getDisturbanceForce(x[i], y[i]);
+                    if (force != null) {
+                        dx[i] += (float) (force.x * d);
+                        dy[i] += (float) (force.y * d);
+                    }
+                }
+                float px = x[i];
+                float py = y[i];
+                x[i] += dx[i] * fd;
+                y[i] += dy[i] * fd;
+                if (colliding) {
+                    collide(i, px, py, statics, nStatics, tileMaps);
+                }
+                color[i] = (short) (colorBase[i] + (int) (last * (1.0f - life[i] / maxLife[i])));
+            }
+        }
+
+        private void emit(Emitter em, double d) {
+            if (Optional.ofNullable(em.target).isPresent() && !em.target.isActive()) {
+                em.accumulator = 0;
+                return;
+            }
+            em.accumulator += em.rate * d * 0.001;
+            int n = (int) em.accumulator + em.burst;
+            em.accumulator -= (int) em.accumulator;
+            em.burst = 0;
+            double ox = em.target != null ? em.target.position.x + em.x : em.x;
+            double oy = em.target != null ? em.target.position.y + em.y : em.y;
+            for (int k = 0; k < n; k++) {
+                double a = em.angle + (random.nextDouble() - 0.5) * em.spread;
+                double s = em.speedMin + random.nextDouble() * (em.speedMax - em.speedMin);
+                double l = em.lifeMin + random.nextDouble() * (em.lifeMax - em.lifeMin);
+                if (!spawn(ox, oy, Math.cos(a) * s, Math.sin(a) * s, l, em.colorBase)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Bounce the particle on the static box or solid tile it entered, moving it back to its previous position.
+         * The bounce axis is the one on which the particle was outside the obstacle before moving.
+         */
+        private void collide(int i, float px, float py, double[] statics, int nStatics, List<TileMap> tileMaps) {
+            for (int k = 0; k < nStatics * 4; k += 4) {
+                if (x[i] >= statics[k] && x[i] < statics[k + 2] && y[i] >= statics[k + 1] && y[i] < statics[k + 3]) {
+                    bounce(i, px, py, px >= statics[k] && px < statics[k + 2]);
+                    return;
+                }
+            }
+            for (TileMap tm : tileMaps) {
+                if (tm.isSolidAt(x[i], y[i])) {
+                    bounce(i, px, py, tm.toTileX(px) == tm.toTileX(x[i]));
+                    return;
+                }
+            }
+        }
+
+        private void bounce(int i, float px, float py, boolean vertical) {
+            x[i] = px;
+            y[i] = py;
+            if (vertical) {
+                dy[i] = -dy[i] * bounce;
+                dx[i] *= bounce;
+            } else {
+                dx[i] = -dx[i] * bounce;
+                dy[i] *= bounce;
+            }
+        }
+
+        private void kill(int i) {
+            int l = --count;
+            x[i] = x[l];
+            y[i] = y[l];
+            dx[i] = dx[l];
+            dy[i] = dy[l];
+            life[i] = life[l];
+            maxLife[i] = maxLife[l];
+            color[i] = color[l];
+            colorBase[i] = colorBase[l];
+        }
+
+        /**
+         * Copy the render state of the living particles into a {@link Snapshot}.
+         *
+         * @param s the Snapshot to be filled.
+         * @return the filled Snapshot.
+         */
+        public Snapshot capture(Snapshot s) {
+            if (s.x.length < count) {
+                s.x = new float[capacity];
+                s.y = new float[capacity];
+                s.color = new short[capacity];
+            }
+            System.arraycopy(x, 0, s.x, 0, count);
+            System.arraycopy(y, 0, s.y, 0, count);
+            System.arraycopy(color, 0, s.color, 0, count);
+            if (s.palette.length != palette.size()) {
+                s.palette = palette.toArray(new Color[0]);
+            }
+            s.count = count;
+            s.size = size;
+            return s;
+        }
+
+        /**
+         * Draw the living particles from the game thread.
+         *
+         * @param g the {@link Graphics2D} API to draw with.
+         */
+        public void draw(Graphics2D g) {
+            capture(frame).draw(g);
+        }
+
+        public void clear() {
+            count = 0;
+            emitters.forEach(em -> {
+                em.accumulator = 0;
+                em.burst = 0;
+            });
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public float getX(int i) {
+            return x[i];
+        }
+
+        public float getY(int i) {
+            return y[i];
+        }
+
+        public float getVelocityX(int i) {
+            return dx[i];
+        }
+
+        public float getVelocityY(int i) {
+            return dy[i];
+        }
+
+        public List<Emitter> getEmitters() {
+            return emitters;
+        }
+    }
+
+    /**
+     * The {@link RenderCache} interns the strokes, colors, derived fonts and small number labels used by the render
+     * pipeline, so that drawing a frame does not allocate them again. Its setters only change the {@link Graphics2D}
+     * state if the interned value is not already the current one, avoiding useless pipeline validations.
+     * <p>
+     * The caches are shared by the game loop, the render thread and the band rendering tasks: each slot holds one
+     * immutable value carrying its own key, published atomically, and the tables only grow by copy-on-write.
+     * Two threads missing the same value may both create it, one of them being kept.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class RenderCache {
+        private static final int COLOR_SLOTS = 64;
+        private static final AtomicReferenceArray<Color> colors = new AtomicReferenceArray<>(COLOR_SLOTS);
+        private static volatile BasicStroke[] strokes = new BasicStroke[0];
+        private static final List<Font[]> fonts = new CopyOnWriteArrayList<>();
+        private static final String[] numbers = new String[256];
+
+        private RenderCache() {
+        }
+
+        /**
+         * @param width the stroke width.
+         * @return the interned {@link BasicStroke} of this width.
+         */
+        public static BasicStroke stroke(float width) {
+            BasicStroke s = findStroke(strokes, width);
+            return s != null ? s : addStroke(width);
+        }
+
+        private static BasicStroke findStroke(BasicStroke[] table, float width) {
+            for (BasicStroke s : table) {
+                if (s.getLineWidth() == width) {
+                    return s;
+                }
+            }
+            return null;
+        }
+
+        private static synchronized BasicStroke addStroke(float width) {
+            BasicStroke s = findStroke(strokes, width);
+            if (s == null) {
+                BasicStroke[] larger = Arrays.copyOf(strokes, strokes.length + 1);
+                s = larger[strokes.length] = new BasicStroke(width);
+                strokes = larger;
+            }
+            return s;
+        }
+
+        /**
+         * Retrieve an interned {@link Color}. The cache is a fixed size hash table: on a collision,
+         * the slot is replaced by the new {@link Color}.
+         *
+         * @return the interned {@link Color} with these components.
+         */
+        public static Color color(float r, float g, float b, float a) {
+            int argb = ((int) (a * 255 + 0.5f) << 24) | ((int) (r * 255 + 0.5f) << 16)
+                | ((int) (g * 255 + 0.5f) << 8) | (int) (b * 255 + 0.5f);
+            int slot = (argb ^ (argb >>> 16)) & (COLOR_SLOTS - 1);
+            Color c = colors.get(slot);
+            if (c == null || c.getRGB() != argb) {
+                c = new Color(argb, true);
+                colors.set(slot, c);
+            }
+            return c;
+        }
+
+        /**
+         * @param base the base {@link Font}.
+         * @param size the requested size.
+         * @return the interned {@link Font} derived from the base one with the requested size.
+         */
+        public static Font font(Font base, float size) {
+            if (base.getSize2D() == size) {
+                return base;
+            }
+            for (int i = 0; i < fonts.size(); i++) {
+                Font[] f = fonts.get(i);
+                if (f[0] == base && f[1].getSize2D() == size) {
+                    return f[1];
+                }
+            }
+            Font derived = base.deriveFont(size);
+            fonts.add(new Font[]{base, derived});
+            return derived;
+        }
+
+        /**
+         * @param n a number.
+         * @return the interned label of small positive numbers.
+         */
+        public static String number(int n) {
+            if (n < 0 || n >= numbers.length) {
+                return String.valueOf(n);
+            }
+            // a String is immutable, it can safely be published without synchronization.
+            String label = numbers[n];
+            if (label == null) {
+                label = String.valueOf(n);
+                numbers[n] = label;
+            }
+            return label;
+        }
+
+        public static void setColor(Graphics2D g, Color c) {
+            if (g.getColor() != c) {
+                g.setColor(c);
+            }
+        }
+
+        public static void setStroke(Graphics2D g, float width) {
+            BasicStroke s = stroke(width);
+            if (g.getStroke() != s) {
+                g.setStroke(s);
+            }
+        }
+
+        public static void setFont(Graphics2D g, Font f) {
+            if (g.getFont() != f) {
+                g.setFont(f);
+            }
+        }
+    }
+
+    /**
+     * A {@link Renderer} draws one type of {@link Entity}, and is registered into the {@link RendererRegistry}.
+     *
+     * @param <T> the type of {@link Entity} drawn by this renderer.
+     */
+    public interface Renderer<T extends Entity> {
+        void draw(KarmaPlatform app, Graphics2D g, T e);
+    }
+
+    /**
+     * The {@link RendererRegistry} maps each {@link Entity} class to a {@link Renderer}.
+     * <p>
+     * Each registered {@link Renderer} gets a render kind id, which is resolved once per {@link Entity} class
+     * (using the nearest registered super class), then cached on the {@link Entity}: drawing is an array lookup.
+     * Registering a new {@link Renderer} invalidates all the cached render kinds.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class RendererRegistry {
+        private Renderer<Entity>[] renderers = newRenderers(8);
+        private int count = 0;
+        private final Map<Class<?>, Integer> registered = new HashMap<>();
+        private final Map<Class<?>, Integer> resolved = new HashMap<>();
+        private int version = 0;
+
+        @SuppressWarnings("unchecked")
+        private static Renderer<Entity>[] newRenderers(int size) {
+            return (Renderer<Entity>[]) new Renderer<?>[size];
+        }
+
+        /**
+         * Register (or replace) the {@link Renderer} for an {@link Entity} class and its subclasses.
+         *
+         * @param type     the {@link Entity} class to be drawn.
+         * @param renderer the {@link Renderer} to draw it.
+         * @param <T>      the type of {@link Entity}.
+         * @return the render kind id.
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends Entity> int register(Class<T> type, Renderer<? super T> renderer) {
+            Integer kind = registered.get(type);
+            if (Optional.ofNullable(kind).isEmpty()) {
+                kind = count++;
+                if (kind >= renderers.length) {
+                    renderers = Arrays.copyOf(renderers, renderers.length * 2);
+                }
+                registered.put(type, kind);
+            }
+            renderers[kind] = (Renderer<Entity>) renderer;
+            resolved.clear();
+            version++;
+            return kind;
+        }
+
+        /**
+         * Retrieve the render kind of an {@link Entity} class, from the nearest registered class.
+         *
+         * @param type the {@link Entity} class.
+         * @return the render kind id, or -1 if no {@link Renderer} is registered for this class.
+         */
+        public int getKind(Class<?> type) {
+            Integer kind = resolved.get(type);
+            if (Optional.ofNullable(kind).isEmpty()) {
+                kind = -1;
+                for (Class<?> c = type; c != null && kind == -1; c = c.getSuperclass()) {
+                    kind = registered.getOrDefault(c, -1);
+                }
+                resolved.put(type, kind);
+            }
+            return kind;
+        }
+
+        /**
+         * Resolve (and cache on the {@link Entity}) its render kind.
+         *
+         * @param e the {@link Entity} to be drawn.
+         * @return the render kind id, or -1 if no {@link Renderer} is registered for this {@link Entity}.
+         */
+        public int resolve(Entity e) {
+            if (e.renderVersion != version) {
+                e.renderKind = getKind(e.getClass());
+                e.renderVersion = version;
+            }
+            return e.renderKind;
+        }
+
+        /**
+         * Draw the {@link Entity} with its {@link Renderer}, resolving and caching its render kind if needed.
+         *
+         * @param app the {@link KarmaPlatform} instance.
+         * @param g   the {@link Graphics2D} API instance to use.
+         * @param e   the {@link Entity} to draw.
+         */
+        public void draw(KarmaPlatform app, Graphics2D g, Entity e) {
+            int kind = resolve(e);
+            if (kind >= 0) {
+                renderers[kind].draw(app, g, e);
+            }
+        }
+
+        public Renderer<Entity> getRenderer(int kind) {
+            return kind >= 0 ? renderers[kind] : null;
+        }
+    }
+
+    /**
+     * The {@link DirtyRegionTracker} computes the screen area to be cleared and drawn again for a frame.
+     * <p>
+     * Each drawn {@link Entity} keeps its last screen area and appearance (colors, sprite frame or image, text).
+     * When one of them changes, or when the {@link Entity} appears or disappears, its old and new areas are
+     * marked dirty. The whole screen is dirty when the {@link Camera} scrolls, when the {@link Scene} changes,
+     * and on {@link DirtyRegionTracker#markAll()}. What a {@link Scene} draws by itself must be declared with
+     * {@link DirtyRegionTracker#markDirty(double, double, double, double)}.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class DirtyRegionTracker {
+        /**
+         * Margin around the {@link Entity} box for antialiasing, strokes and text outline.
+         */
+        private static final double MARGIN = 2;
+        private final Rectangle2D.Double dirty = new Rectangle2D.Double();
+        private final Rectangle region = new Rectangle();
+        private boolean empty = true;
+        private boolean full = true;
+        private Scene lastScene;
+        private double lastCamX = Double.NaN, lastCamY = Double.NaN;
+        private long frame = 0;
+        private List<Entity> drawn = new ArrayList<>();
+        private List<Entity> previous = new ArrayList<>();
+
+        public void markDirty(double x, double y, double w, double h) {
+            if (empty) {
+                dirty.setRect(x, y, w, h);
+                empty = false;
+            } else {
+                dirty.add(x, y);
+                dirty.add(x + w, y + h);
+            }
+        }
+
+        /**
+         * Request a full redraw for the next frame.
+         */
+        public void markAll() {
+            full = true;
+        }
+
+        /**
+         * Track the entities to be drawn in this frame and compute the region to be drawn again.
+         *
+         * @param scene    the current {@link Scene}.
+         * @param entities the active entities to be drawn (children included).
+         * @param tick     the current tick, to compute the animation frames.
+         * @param width    width of the rendering buffer.
+         * @param height   height of the rendering buffer.
+         * @return the region to be drawn again, or null if nothing changed.
+         */
+        public Rectangle update(Scene scene, Collection<Entity> entities, long tick, int width, int height) {
+            frame++;
+            Camera cam = scene.getCamera();
+            double camX = Optional.ofNullable(cam).isPresent() ? cam.position.x : 0;
+            double camY = Optional.ofNullable(cam).isPresent() ? cam.position.y : 0;
+            if (scene != lastScene || camX != lastCamX || camY != lastCamY) {
+                full = true;
+            }
+            lastScene = scene;
+            lastCamX = camX;
+            lastCamY = camY;
+            drawn.clear();
+            for (Entity e : entities) {
+                track(e, e.isStatic() ? 0 : camX, e.isStatic() ? 0 : camY, tick);
+                for (Entity c : e.getChild()) {
+                    if (c.isActive()) {
+                        track(c, e.isStatic() ? 0 : camX, e.isStatic() ? 0 : camY, tick);
+                    }
+                }
+            }
+            // the entities not drawn anymore leave their area dirty.
+            for (Entity e : previous) {
+                if (e.drawnFrame != frame) {
+                    markDirty(e.drawnX, e.drawnY, e.drawnW, e.drawnH);
+                    e.drawnFrame = -1;
+                }
+            }
+            List<Entity> swap = previous;
+            previous = drawn;
+            drawn = swap;
+
+            Rectangle result = null;
+            if (full) {
+                region.setBounds(0, 0, width, height);
+                result = region;
+            } else if (!empty) {
+                int x = (int) Math.floor(dirty.x), y = (int) Math.floor(dirty.y);
+                region.setBounds(x, y, (int) Math.ceil(dirty.getMaxX()) - x, (int) Math.ceil(dirty.getMaxY()) - y);
+                result = region.intersects(0, 0, width, height) ? region : null;
+            }
+            full = false;
+            empty = true;
+            return result;
+        }
+
+        private void track(Entity e, double camX, double camY, long tick) {
+            Rectangle2D b = e.getBox();
+            double x = b.getX() - camX - MARGIN;
+            double y = b.getY() - camY - MARGIN;
+            double w = b.getWidth() + 2 * MARGIN;
+            double h = b.getHeight() + 2 * MARGIN;
+            Object look = e instanceof TextObject to ? to.getText()
+                : e.animation != null ? e.animation.frameAt(e, tick)
+                : e.sprite != null ? e.sprite : e.image;
+            boolean flipped = e.velocity.x < 0;
+            boolean wasDrawn = e.drawnFrame == frame - 1;
+            if (!wasDrawn || x != e.drawnX || y != e.drawnY || w != e.drawnW || h != e.drawnH
+                || look != e.drawnLook || e.fgColor != e.drawnFg || e.bgColor != e.drawnBg || flipped != e.drawnFlipped) {
+                if (wasDrawn) {
+                    markDirty(e.drawnX, e.drawnY, e.drawnW, e.drawnH);
+                }
+                markDirty(x, y, w, h);
+                e.drawnX = x;
+                e.drawnY = y;
+                e.drawnW = w;
+                e.drawnH = h;
+                e.drawnLook = look;
+                e.drawnFg = e.fgColor;
+                e.drawnBg = e.bgColor;
+                e.drawnFlipped = flipped;
+            }
+            e.drawnFrame = frame;
+            drawn.add(e);
+        }
+
+        /**
+         * @param e an {@link Entity} tracked in the last frame.
+         * @param r the region drawn again.
+         * @return true if the {@link Entity} area intersects the region.
+         */
+        public static boolean intersects(Entity e, Rectangle r) {
+            return r.intersects(e.drawnX, e.drawnY, e.drawnW, e.drawnH);
+        }
+    }
+
+    /**
+     * The render state of one {@link Entity}, copied at the end of a tick for the render thread.
+     * Entities drawn by a custom {@link Renderer} only keep their reference and the renderer.
+     * The debug information (label, box, velocity and collision normals) is copied too.
+     */
+    public static class RenderItem {
+        private Entity entity;
+        private Renderer<Entity> renderer;
+        private boolean detached;
+        private boolean drawBehaviors;
+        private boolean debug;
+        private String debugLabel;
+        private final Rectangle2D.Double box = new Rectangle2D.Double();
+        private double vx, vy;
+        /**
+         * End points of the collision normals, as (x, y) pairs.
+         */
+        private double[] normals = new double[8];
+        private int normalCount;
+        private boolean isStatic;
+        private EntityType type;
+        private double x, y, w, h;
+        private boolean flipped;
+        private Color fgColor, bgColor;
+        private BufferedImage image;
+        private SpriteAtlas.Sprite sprite;
+        private String text;
+        private TextCache.CachedText rendered;
+        /**
+         * True for a shape or a sprite drawn by the engine {@link Entity} renderer.
+         */
+        private boolean shape;
+        /**
+         * The grid steps and stroke of a {@link GridObject}, and the size of the play area it covers.
+         */
+        private int stepW, stepH;
+        private float strokeSize;
+        private double areaW, areaH;
+        /**
+         * The loaded tiles of a {@link TileMap}, created on its first capture.
+         */
+        private TileMap.Snapshot tiles;
+
+        public Entity getEntity() {
+            return entity;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public boolean isDetached() {
+            return detached;
+        }
+    }
+
+    /**
+     * A {@link RenderFrame} is the render state of all the visible entities of a tick, in drawing order,
+     * with the camera position. Its {@link RenderItem}s are reused from one frame to the next.
+     * The {@link Scene} it has been filled from is kept with its captured state
+     * (see {@link Scene#capture(Map)}), as the current {@link Scene} may change before the frame is drawn.
+     */
+    public static class RenderFrame {
+        private final List<RenderItem> items = new ArrayList<>();
+        private final List<Entity> entities = new ArrayList<>();
+        private final Map<String, Object> stats = new HashMap<>();
+        private Scene scene;
+        private final Map<String, Object> sceneState = new HashMap<>();
+        private final List<ParticleSystem.Snapshot> particles = new ArrayList<>();
+        private int size = 0;
+        private int particleCount = 0;
+        private boolean hasCamera = false;
+        private double camX, camY;
+
+        public void clear() {
+            size = 0;
+            particleCount = 0;
+            entities.clear();
+            stats.clear();
+            scene = null;
+            sceneState.clear();
+        }
+
+        private RenderItem next() {
+            if (size == items.size()) {
+                items.add(new RenderItem());
+            }
+            return items.get(size++);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public RenderItem get(int i) {
+            return items.get(i);
+        }
+
+        private ParticleSystem.Snapshot nextParticles() {
+            if (particleCount == particles.size()) {
+                particles.add(new ParticleSystem.Snapshot());
+            }
+            return particles.get(particleCount++);
+        }
+    }
+
+    /**
+     * A lock-free triple buffer of {@link RenderFrame}: the game thread fills one frame while the render thread
+     * draws another one, the third one being the latest published frame. Publishing never waits for the render
+     * thread, and the render thread always draws the latest published frame.
+     */
+    public static class RenderTripleBuffer {
+        private static final int FRESH = 4;
+        private final RenderFrame[] frames = {new RenderFrame(), new RenderFrame(), new RenderFrame()};
+        private final AtomicInteger shared = new AtomicInteger(1);
+        private int write = 0;
+        private int read = 2;
+
+        /**
+         * @return the frame to be filled by the game thread.
+         */
+        public RenderFrame getWriteFrame() {
+            return frames[write];
+        }
+
+        /**
+         * Publish the filled frame, and take the previously shared one to be filled next.
+         */
+        public void publish() {
+            write = shared.getAndSet(write | FRESH) & 3;
+        }
+
+        /**
+         * @return the latest published frame not yet drawn, or null if there is none.
+         */
+        public RenderFrame acquire() {
+            if ((shared.get() & FRESH) == 0) {
+                return null;
+            }
+            read = shared.getAndSet(read) & 3;
+            return frames[read];
+        }
+    }
+
+    public interface Behavior<Entity> {
+        default void onUpdate(KarmaPlatform a, Entity e, double d) {
+        }
+
+        default void onInput(KarmaPlatform a, Entity e) {
+        }
+
+        default void onDraw(KarmaPlatform a, Graphics2D g, Entity e) {
+        }
+
+        /**
+         * Called on each tick the {@link Entity} is in contact with another one.
+         */
+        default void onCollision(CollisionEvent ce) {
+
+        }
+
+        /**
+         * Called on the first tick of a contact, before {@link Behavior#onCollision(CollisionEvent)}.
+         */
+        default void onCollisionEnter(CollisionEvent ce) {
+        }
+
+        /**
+         * Called on the next ticks of a contact, before {@link Behavior#onCollision(CollisionEvent)}.
+         */
+        default void onCollisionStay(CollisionEvent ce) {
+        }
+
+        /**
+         * Called once a contact has ended. The {@link CollisionEvent} is reused afterward, and must not be kept.
+         */
+        default void onCollisionExit(CollisionEvent ce) {
+        }
+    }
+
+    public static class Camera extends Entity {
+        private Entity target;
+
+        private Rectangle2D viewport;
+        private double tween;
+
+        public Camera(String name) {
+            super(name);
+        }
+
+        public Camera setTarget(Entity target) {
+            this.target = target;
+            return this;
+        }
+
+        public Camera setViewport(Rectangle2D vp) {
+            this.viewport = vp;
+            return this;
+        }
+
+        public Camera setTweenFactor(double tf) {
+            this.tween = tf;
+            return this;
+        }
+
+        public Rectangle2D getViewport() {
+            return this.viewport;
+        }
+
+        public Entity getTarget() {
+            return this.target;
+        }
+
+        public double getTweenFactor() {
+            return this.tween;
+        }
+
+        public void update(double dt) {
+            this.position.x += Math
+                .ceil((target.position.x + (target.w * 0.5) - ((viewport.getWidth()) * 0.5) - this.position.x)
+                    * tween * Math.min(dt, 10));
+            this.position.y += Math
+                .ceil((target.position.y + (target.h * 0.5) - ((viewport.getHeight()) * 0.5) - this.position.y)
+                    * tween * Math.min(dt, 10));
+
+            this.viewport.setRect(this.position.x, this.position.y, this.viewport.getWidth(),
+                this.viewport.getHeight());
+        }
+    }
+
+    /**
+     * A lock-free single-producer/single-consumer ring buffer of {@link KeyEvent}s.
+     * <p>
+     * The AWT event dispatch thread is the only producer (through the {@link KeyListener} implementation),
+     * and the game thread is the only consumer, draining the queue at the start of each
+     * {@link KarmaPlatform#input()} call.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class KeyEventQueue {
+        private final KeyEvent[] ring;
+        private final int mask;
+        /**
+         * next slot to be read, only written by the consumer.
+         */
+        private final AtomicLong head = new AtomicLong();
+        /**
+         * next slot to be written, only written by the producer.
+         */
+        private final AtomicLong tail = new AtomicLong();
+
+        /**
+         * Create a new queue.
+         *
+         * @param capacity the capacity of the queue, must be a power of 2.
+         */
+        public KeyEventQueue(int capacity) {
+            this.ring = new KeyEvent[capacity];
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * Producer side: add an event to the queue.
+         *
+         * @param e the {@link KeyEvent} to be added.
+         * @return false if the queue is full and the event has been dropped.
+         */
+        public boolean offer(KeyEvent e) {
+            long t = tail.get();
+            if (t - head.get() >= ring.length) {
+                return false;
+            }
+            ring[(int) (t & mask)] = e;
+            tail.lazySet(t + 1);
+            return true;
+        }
+
+        /**
+         * Consumer side: retrieve the oldest event from the queue.
+         *
+         * @return the oldest {@link KeyEvent} or null if the queue is empty.
+         */
+        public KeyEvent poll() {
+            long h = head.get();
+            if (h >= tail.get()) {
+                return null;
+            }
+            int i = (int) (h & mask);
+            KeyEvent e = ring[i];
+            ring[i] = null;
+            head.lazySet(h + 1);
+            return e;
+        }
+    }
+
+    /**
+     * The {@link InputSnapshot} is the state of the keyboard for the current tick.
+     * <p>
+     * It is built by the game thread at the start of {@link KarmaPlatform#input()} from the queued {@link KeyEvent}s,
+     * and is read-only for the rest of the tick. Besides the key down state, it provides the keys
+     * pressed and released during this tick, even if both happened between two ticks.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class InputSnapshot {
+        private static final int MAX_KEYS = 1024;
+        private final long[] down = new long[MAX_KEYS / 64];
+        private final long[] pressed = new long[MAX_KEYS / 64];
+        private final long[] released = new long[MAX_KEYS / 64];
+
+        private void clearEdges() {
+            Arrays.fill(pressed, 0L);
+            Arrays.fill(released, 0L);
+        }
+
+        private void press(int keyCode) {
+            if (keyCode >= 0 && keyCode < MAX_KEYS && !isDown(keyCode)) {
+                down[keyCode >> 6] |= 1L << keyCode;
+                pressed[keyCode >> 6] |= 1L << keyCode;
+            }
+        }
+
+        private void release(int keyCode) {
+            if (keyCode >= 0 && keyCode < MAX_KEYS) {
+                down[keyCode >> 6] &= ~(1L << keyCode);
+                released[keyCode >> 6] |= 1L << keyCode;
+            }
+        }
+
+        private static boolean isSet(long[] bits, int keyCode) {
+            return keyCode >= 0 && keyCode < MAX_KEYS && (bits[keyCode >> 6] & (1L << keyCode)) != 0;
+        }
+
+        /**
+         * @param keyCode the {@link KeyEvent} key code.
+         * @return true if the key is down.
+         */
+        public boolean isDown(int keyCode) {
+            return isSet(down, keyCode);
+        }
+
+        /**
+         * @param keyCode the {@link KeyEvent} key code.
+         * @return true if the key has been pressed during this tick.
+         */
+        public boolean isPressed(int keyCode) {
+            return isSet(pressed, keyCode);
+        }
+
+        /**
+         * @param keyCode the {@link KeyEvent} key code.
+         * @return true if the key has been released during this tick.
+         */
+        public boolean isReleased(int keyCode) {
+            return isSet(released, keyCode);
+        }
+    }
+
+    /**
+     * The {@link InputActions} binds named actions to keys, and evaluates them on each tick
+     * into a compact bitset (one bit per action, up to 64 actions).
+     * <p>
+     * Bindings are defined through the <code>app.input.actions</code> configuration key,
+     * e.g. <code>up:UP|W,down:DOWN|S</code>, where key names are the {@link KeyEvent} <code>VK_*</code> ones.
+     * The <code>up</code>, <code>down</code>, <code>left</code> and <code>right</code> actions are bound
+     * to the arrow keys by default.
+     * <p>
+     * The per-tick bitsets can be recorded into a compact binary log (run-length encoded),
+     * and then replayed instead of the keyboard to reproduce a play session. The raw key events of each tick
+     * are recorded with the bitsets, so that the code reading the keys directly
+     * (e.g. {@link Scene#input(KarmaPlatform)} or {@link Scene#onKeyReleased(KeyEvent)}) is replayed too.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class InputActions {
+        private static final int MAX_ACTIONS = 64;
+        private static final int LOG_MAGIC = 0x4B524D42;
+        private final Map<String, Integer> actions = new HashMap<>();
+        private final int[][] bindings = new int[MAX_ACTIONS][];
+        private long current, previous;
+
+        private DataOutputStream recorder;
+        private long recordedBits;
+        private int recordedCount;
+        /**
+         * Key events of the current tick, and of the first tick of the current run.
+         */
+        private long[] tickKeys = new long[16];
+        private int tickKeyCount;
+        private long[] recordedKeys = new long[16];
+        private int recordedKeyCount;
+
+        private DataInputStream replay;
+        private long replayBits;
+        private int replayCount;
+        private long[] replayKeys = new long[16];
+        private int replayKeyCount;
+        /**
+         * Bits forced for the next tick, when a past tick is simulated again.
+         */
+        private long overrideBits;
+        private boolean overridden;
+
+        public InputActions() {
+            bind("up", KeyEvent.VK_UP);
+            bind("down", KeyEvent.VK_DOWN);
+            bind("left", KeyEvent.VK_LEFT);
+            bind("right", KeyEvent.VK_RIGHT);
+        }
+
+        /**
+         * Bind an action to one or more keys.
+         *
+         * @param action   the name of the action
+         * @param keyCodes the {@link KeyEvent} key codes activating this action.
+         * @return the action id.
+         */
+        public int bind(String action, int... keyCodes) {
+            int id = actions.computeIfAbsent(action, a -> actions.size());
+            if (id >= MAX_ACTIONS) {
+                actions.remove(action);
+                error("Too many actions, can not bind %s", action);
+                return -1;
+            }
+            bindings[id] = keyCodes;
+            return id;
+        }
+
+        /**
+         * Parse the action bindings from the configuration value.
+         *
+         * @param bindingList the list of bindings, e.g. <code>up:UP|W,down:DOWN|S</code>.
+         */
+        public void parse(String bindingList) {
+            Arrays.stream(bindingList.split(",")).forEach(item -> {
+                String[] attrs = item.split(":");
+                if (attrs.length != 2 || attrs[0].isBlank()) {
+                    error("Wrong action binding '%s', must be action:KEY|KEY", item);
+                    return;
+                }
+                int[] keyCodes = Arrays.stream(attrs[1].split("\\|"))
+                    .mapToInt(InputActions::getKeyCode)
+                    .filter(k -> k != KeyEvent.VK_UNDEFINED)
+                    .toArray();
+                bind(attrs[0], keyCodes);
+            });
+        }
+
+        private static int getKeyCode(String keyName) {
+            try {
+                return KeyEvent.class.getField("VK_" + keyName.toUpperCase()).getInt(null);
+            } catch (NoSuchFieldException | IllegalAccessException e) {
+                error("Unknown key %s: %s", keyName, e.getMessage());
+                return KeyEvent.VK_UNDEFINED;
+            }
+        }
+
+        /**
+         * @param action the name of the action
+         * @return the action id or -1 if this action is not bound.
+         */
+        public int getActionId(String action) {
+            return actions.getOrDefault(action, -1);
+        }
+
+        /**
+         * Compute the bitset for this tick from the {@link InputSnapshot}, or from the replayed log if any,
+         * and record it if a recording is in progress.
+         *
+         * @param input the current tick {@link InputSnapshot}.
+         */
+        public void update(InputSnapshot input) {
+            previous = current;
+            replayKeyCount = 0;
+            if (overridden) {
+                // a past tick simulated again is neither recorded nor read from the replayed log.
+                current = overrideBits;
+                overridden = false;
+                tickKeyCount = 0;
+                return;
+            }
+            current = Optional.ofNullable(replay).isPresent() ? nextReplayed(input) : evaluate(input);
+            if (Optional.ofNullable(recorder).isPresent()) {
+                record(current);
+            }
+            tickKeyCount = 0;
+        }
+
+        /**
+         * Pack a key event as recorded in the log: key code, released flag and extended modifiers.
+         *
+         * @param e the {@link KeyEvent} to be packed.
+         * @return the packed key event.
+         */
+        public static long packKey(KeyEvent e) {
+            return ((long) e.getModifiersEx() << 32)
+                | (e.getID() == KeyEvent.KEY_RELEASED ? 0x10000L : 0L)
+                | (e.getKeyCode() & 0xFFFF);
+        }
+
+        /**
+         * Create back a {@link KeyEvent} from a packed key event.
+         *
+         * @param source the {@link Component} to set as the event source.
+         * @param key    the packed key event.
+         * @return the KeyEvent.
+         */
+        public static KeyEvent unpackKey(Component source, long key) {
+            return new KeyEvent(source,
+                (key & 0x10000L) != 0 ? KeyEvent.KEY_RELEASED : KeyEvent.KEY_PRESSED,
+                0, (int) (key >>> 32), (int) (key & 0xFFFF), KeyEvent.CHAR_UNDEFINED);
+        }
+
+        /**
+         * Add a key event processed during the current tick to the record, if a recording is in progress.
+         *
+         * @param e the processed {@link KeyEvent}.
+         */
+        public void recordKey(KeyEvent e) {
+            if (Optional.ofNullable(recorder).isEmpty()) {
+                return;
+            }
+            if (tickKeyCount == tickKeys.length) {
+                tickKeys = Arrays.copyOf(tickKeys, tickKeyCount * 2);
+            }
+            tickKeys[tickKeyCount++] = packKey(e);
+        }
+
+        /**
+         * @return the number of key events replayed for the current tick.
+         */
+        public int getReplayedKeyCount() {
+            return replayKeyCount;
+        }
+
+        /**
+         * @param i the index of the replayed key event.
+         * @return the packed key event, see {@link InputActions#unpackKey(Component, long)}.
+         */
+        public long getReplayedKey(int i) {
+            return replayKeys[i];
+        }
+
+        private long evaluate(InputSnapshot input) {
+            long bits = 0;
+            for (int id = 0; id < actions.size(); id++) {
+                for (int keyCode : bindings[id]) {
+                    if (input.isDown(keyCode)) {
+                        bits |= 1L << id;
+                        break;
+                    }
+                }
+            }
+            return bits;
+        }
+
+        public boolean isActive(int id) {
+            return id >= 0 && (current & (1L << id)) != 0;
+        }
+
+        public boolean isPressed(int id) {
+            return id >= 0 && (current & ~previous & (1L << id)) != 0;
+        }
+
+        public boolean isReleased(int id) {
+            return id >= 0 && (~current & previous & (1L << id)) != 0;
+        }
+
+        public long getBits() {
+            return current;
+        }
+
+        /**
+         * Restore the bits of a past tick, to rewind the pressed/released edges with the simulation.
+         *
+         * @param bits the bits of the rewound tick.
+         */
+        public void setBits(long bits) {
+            current = bits;
+        }
+
+        /**
+         * Force the bits of the next tick, ignoring the keyboard and the replayed log.
+         *
+         * @param bits the bits of the tick to be simulated again.
+         */
+        public void override(long bits) {
+            overrideBits = bits;
+            overridden = true;
+        }
+
+        public boolean isOverridden() {
+            return overridden;
+        }
+
+        public void startRecording(Path path) {
+            try {
+                recorder = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+                recorder.writeInt(LOG_MAGIC);
+                recordedCount = 0;
+                tickKeyCount = 0;
+                info("Recording input actions to %s", path);
+            } catch (IOException e) {
+                error("Unable to record input actions to %s: %s", path, e.getMessage());
+                recorder = null;
+            }
+        }
+
+        /**
+         * Add a tick to the record. A tick with key events always starts a new run, its key events being
+         * written with the run.
+         */
+        private void record(long bits) {
+            if (recordedCount > 0 && bits == recordedBits && tickKeyCount == 0) {
+                recordedCount++;
+                return;
+            }
+            flushRecord();
+            recordedBits = bits;
+            recordedCount = 1;
+            if (recordedKeys.length < tickKeyCount) {
+                recordedKeys = new long[tickKeys.length];
+            }
+            System.arraycopy(tickKeys, 0, recordedKeys, 0, tickKeyCount);
+            recordedKeyCount = tickKeyCount;
+        }
+
+        private void flushRecord() {
+            if (recordedCount > 0) {
+                try {
+                    recorder.writeLong(recordedBits);
+                    recorder.writeInt(recordedCount);
+                    recorder.writeShort(recordedKeyCount);
+                    for (int i = 0; i < recordedKeyCount; i++) {
+                        recorder.writeLong(recordedKeys[i]);
+                    }
+                } catch (IOException e) {
+                    error("Unable to record input actions: %s", e.getMessage());
+                }
+            }
+        }
+
+        public void startReplay(Path path) {
+            try {
+                replay = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+                if (replay.readInt() != LOG_MAGIC) {
+                    error("%s is not an input actions log", path);
+                    stopReplay();
+                    return;
+                }
+                replayCount = 0;
+                info("Replaying input actions from %s", path);
+            } catch (IOException e) {
+                error("Unable to replay input actions from %s: %s", path, e.getMessage());
+                replay = null;
+            }
+        }
+
+        private long nextReplayed(InputSnapshot input) {
+            if (replayCount == 0) {
+                try {
+                    replayBits = replay.readLong();
+                    replayCount = replay.readInt();
+                    replayKeyCount = replay.readShort();
+                    if (replayKeys.length < replayKeyCount) {
+                        replayKeys = new long[replayKeyCount];
+                    }
+                    for (int i = 0; i < replayKeyCount; i++) {
+                        replayKeys[i] = replay.readLong();
+                    }
+                } catch (IOException e) {
+                    info("End of the input actions replay");
+                    stopReplay();
+                    return evaluate(input);
+                }
+            }
+            replayCount--;
+            return replayBits;
+        }
+
+        public boolean isReplaying() {
+            return Optional.ofNullable(replay).isPresent();
+        }
+
+        private void stopReplay() {
+            try {
+                replay.close();
+            } catch (IOException e) {
+                error("Unable to close the input actions replay: %s", e.getMessage());
+            }
+            replay = null;
+        }
+
+        /**
+         * Stop any recording or replay in progress.
+         */
+        public void stop() {
+            if (Optional.ofNullable(recorder).isPresent()) {
+                flushRecord();
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    error("Unable to close the input actions record: %s", e.getMessage());
+                }
+                recorder = null;
+            }
+            if (Optional.ofNullable(replay).isPresent()) {
+                stopReplay();
+            }
+        }
+    }
+
+    /**
+     * The {@link SimulationRandom} draws the same values as {@link Random} for the same seed, but its state can be
+     * read and set back, to be rewound with the simulation by the {@link RewindBuffer}.
+     * <p>
+     * {@link SimulationRandom#nextGaussian()} does not keep the second value of a pair for the next call,
+     * so that the whole state of the generator is its seed.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class SimulationRandom extends Random {
+        private static final long MULTIPLIER = 0x5DEECE66DL;
+        private static final long ADDEND = 0xBL;
+        private static final long MASK = (1L << 48) - 1;
+        /**
+         * Not initialized here: the {@link Random} constructor sets it through {@link SimulationRandom#setSeed(long)}.
+         */
+        private long seed;
+
+        public SimulationRandom() {
+            super();
+        }
+
+        public SimulationRandom(long seed) {
+            super(seed);
+        }
+
+        @Override
+        public synchronized void setSeed(long seed) {
+            this.seed = (seed ^ MULTIPLIER) & MASK;
+        }
+
+        @Override
+        protected synchronized int next(int bits) {
+            seed = (seed * MULTIPLIER + ADDEND) & MASK;
+            return (int) (seed >>> (48 - bits));
+        }
+
+        @Override
+        public double nextGaussian() {
+            double v1, v2, s;
+            do {
+                v1 = 2 * nextDouble() - 1;
+                v2 = 2 * nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
+            return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        }
+
+        /**
+         * @return the current state of the generator, to be set back with {@link SimulationRandom#setState(long)}.
+         */
+        public synchronized long getState() {
+            return seed;
+        }
+
+        public synchronized void setState(long state) {
+            this.seed = state & MASK;
+        }
     }
 
-    public static class Disturbance extends Entity {
+    /**
+     * The {@link SimulationChecksum} computes a checksum of the {@link Scene}'s entities state every N ticks,
+     * to record it into a binary file, or to verify it against a previously recorded one.
+     * <p>
+     * Combined with a fixed time step, a seeded random generator (see {@link KarmaPlatform#getRandom()})
+     * and a replayed {@link InputActions} log, this allows bit-identical runs to be compared
+     * from one engine version to another. The world streaming must be deactivated in this mode,
+     * as chunks are loaded in the background.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class SimulationChecksum {
+        private int period = 0;
+        private DataOutputStream recorder;
+        private DataInputStream expected;
+        private boolean diverged = false;
+        /**
+         * Last processed tick: the ticks simulated again after a rewind are not recorded nor verified twice.
+         */
+        private long lastTick = -1;
+
+        public SimulationChecksum setPeriod(int p) {
+            this.period = p;
+            return this;
+        }
+
+        public void startRecording(Path path) {
+            try {
+                recorder = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+                info("Recording simulation checksums to %s", path);
+            } catch (IOException e) {
+                error("Unable to record simulation checksums to %s: %s", path, e.getMessage());
+            }
+        }
+
+        public void startVerifying(Path path) {
+            try {
+                expected = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+                info("Verifying simulation checksums against %s", path);
+            } catch (IOException e) {
+                error("Unable to read simulation checksums from %s: %s", path, e.getMessage());
+            }
+        }
 
         /**
-         * Create a new {@link Disturbance} with a name.
-         * The internal {@link Entity#id} for this {@link Entity} will be created based on the
-         * internal {@link Entity#index} counter.
+         * Compute, record and/or verify the checksum if the tick is on the period.
          *
-         * @param name the name for this new Entity.
+         * @param tick     the current tick number.
+         * @param entities the entities of the current {@link Scene}.
          */
-        public Disturbance(String name) {
-            super(name);
-            this.setPhysicType(PhysicType.NONE);
-            this.setType(EntityType.RECTANGLE);
-            setForegroundColor(null);
-            setBackgroundColor(null);
+        public void update(long tick, Collection<Entity> entities) {
+            if (period <= 0 || tick % period != 0 || tick <= lastTick
+                || (Optional.ofNullable(recorder).isEmpty() && Optional.ofNullable(expected).isEmpty())) {
+                return;
+            }
+            lastTick = tick;
+            long sum = compute(entities);
+            try {
+                if (Optional.ofNullable(recorder).isPresent()) {
+                    recorder.writeLong(tick);
+                    recorder.writeLong(sum);
+                }
+                if (Optional.ofNullable(expected).isPresent() && !diverged) {
+                    long expectedTick = expected.readLong();
+                    long expectedSum = expected.readLong();
+                    if (expectedTick != tick || expectedSum != sum) {
+                        diverged = true;
+                        error("Simulation diverged at tick %d: checksum %016x expected %016x at tick %d",
+                            tick, sum, expectedSum, expectedTick);
+                    }
+                }
+            } catch (EOFException e) {
+                info("End of the simulation checksums at tick %d", tick);
+                stop();
+            } catch (IOException e) {
+                error("Unable to process simulation checksum at tick %d: %s", tick, e.getMessage());
+            }
+        }
+
+        /**
+         * Compute a checksum of the physical state of the entities, sorted by name.
+         *
+         * @param entities the entities to be processed.
+         * @return the resulting checksum.
+         */
+        public static long compute(Collection<Entity> entities) {
+            long h = 0xcbf29ce484222325L;
+            for (Entity e : entities.stream().sorted(Comparator.comparing(en -> en.name)).toList()) {
+                h = mix(h, e.name.hashCode());
+                h = mix(h, Double.doubleToLongBits(e.position.x));
+                h = mix(h, Double.doubleToLongBits(e.position.y));
+                h = mix(h, Double.doubleToLongBits(e.velocity.x));
+                h = mix(h, Double.doubleToLongBits(e.velocity.y));
+                h = mix(h, e.isActive() ? 1 : 0);
+            }
+            return h;
+        }
+
+        private static long mix(long h, long v) {
+            return (h ^ v) * 0x100000001b3L;
+        }
+
+        public boolean isDiverged() {
+            return diverged;
+        }
+
+        public void stop() {
+            try {
+                if (Optional.ofNullable(recorder).isPresent()) {
+                    recorder.close();
+                }
+                if (Optional.ofNullable(expected).isPresent()) {
+                    expected.close();
+                }
+            } catch (IOException e) {
+                error("Unable to close simulation checksums file: %s", e.getMessage());
+            }
+            recorder = null;
+            expected = null;
         }
     }
 
-    public interface Behavior<Entity> {
-        default void onUpdate(KarmaPlatform a, Entity e, double d) {
+    /**
+     * The {@link SceneSnapshot} captures the physical state of all the {@link Scene}'s entities
+     * (position, velocity, acceleration, life, active status, colors and numeric/boolean attributes)
+     * and of its {@link Camera} into a reusable {@link ByteBuffer}.
+     * <p>
+     * The state is restored into the same {@link Entity} instances, without re-creating them.
+     * This is used to instantly reset a {@link Scene}, and for quick-save/quick-load.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class SceneSnapshot {
+        private static final int ENTITY_STATE_SIZE = 7 * Double.BYTES + 2 + 2 * Integer.BYTES + Short.BYTES;
+        private static final byte HAS_FG_COLOR = 1;
+        private static final byte HAS_BG_COLOR = 2;
+        private static final int ATTRIBUTE_SIZE = Short.BYTES + 1 + Long.BYTES;
+        private static final byte ATTR_DOUBLE = 0;
+        private static final byte ATTR_INTEGER = 1;
+        private static final byte ATTR_LONG = 2;
+        private static final byte ATTR_BOOLEAN = 3;
+
+        private ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        private Entity[] entities = new Entity[64];
+        private int count = 0;
+        private int topLevelCount = 0;
+        private Camera camera;
+        private final List<String> keys = new ArrayList<>();
+        private final Map<String, Integer> keyIndex = new HashMap<>();
+
+        /**
+         * Capture the state of all the entities (and their children) of the {@link Scene}.
+         *
+         * @param scene the {@link Scene} to be captured.
+         * @return this updated snapshot.
+         */
+        public SceneSnapshot capture(Scene scene) {
+            buffer.clear();
+            count = 0;
+            scene.getEntities().forEach(this::add);
+            topLevelCount = count;
+            for (int i = 0; i < topLevelCount; i++) {
+                entities[i].getChild().forEach(this::addWithChildren);
+            }
+            // the camera is not one of the scene's entities, but follows them.
+            camera = scene.getCamera();
+            if (Optional.ofNullable(camera).isPresent()) {
+                add(camera);
+            }
+            for (int i = 0; i < count; i++) {
+                write(entities[i]);
+            }
+            buffer.flip();
+            return this;
         }
 
-        default void onInput(KarmaPlatform a, Entity e) {
+        private void add(Entity e) {
+            if (count == entities.length) {
+                entities = Arrays.copyOf(entities, count * 2);
+            }
+            entities[count++] = e;
+        }
+
+        private void addWithChildren(Entity e) {
+            add(e);
+            e.getChild().forEach(this::addWithChildren);
+        }
+
+        private void write(Entity e) {
+            ensureCapacity(ENTITY_STATE_SIZE + e.attributes.size() * ATTRIBUTE_SIZE);
+            buffer.putDouble(e.position.x).putDouble(e.position.y)
+                .putDouble(e.velocity.x).putDouble(e.velocity.y)
+                .putDouble(e.acceleration.x).putDouble(e.acceleration.y)
+                .putDouble(e.life)
+                .put((byte) (e.active ? 1 : 0))
+                .put((byte) ((e.fgColor != null ? HAS_FG_COLOR : 0) | (e.bgColor != null ? HAS_BG_COLOR : 0)))
+                .putInt(e.fgColor != null ? e.fgColor.getRGB() : 0)
+                .putInt(e.bgColor != null ? e.bgColor.getRGB() : 0);
+            int countPosition = buffer.position();
+            short attrCount = 0;
+            buffer.putShort(attrCount);
+            for (Map.Entry<String, Object> attr : e.attributes.entrySet()) {
+                byte type;
+                long value;
+                if (attr.getValue() instanceof Double v) {
+                    type = ATTR_DOUBLE;
+                    value = Double.doubleToRawLongBits(v);
+                } else if (attr.getValue() instanceof Integer v) {
+                    type = ATTR_INTEGER;
+                    value = v;
+                } else if (attr.getValue() instanceof Long v) {
+                    type = ATTR_LONG;
+                    value = v;
+                } else if (attr.getValue() instanceof Boolean v) {
+                    type = ATTR_BOOLEAN;
+                    value = v ? 1 : 0;
+                } else {
+                    // other attribute types are not part of the physical state.
+                    continue;
+                }
+                buffer.putShort((short) keyIndex.computeIfAbsent(attr.getKey(), k -> {
+                    keys.add(k);
+                    return keys.size() - 1;
+                }).intValue());
+                buffer.put(type).putLong(value);
+                attrCount++;
+            }
+            buffer.putShort(countPosition, attrCount);
         }
 
-        default void onDraw(KarmaPlatform a, Graphics2D g, Entity e) {
+        private void ensureCapacity(int size) {
+            if (buffer.remaining() < size) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
         }
 
-        default void onCollision(CollisionEvent ce) {
+        /**
+         * Restore the captured state into the entities, and restore the {@link Scene}'s list of entities
+         * if it has been changed since the capture.
+         *
+         * @param scene the {@link Scene} to be restored.
+         */
+        public void restore(Scene scene) {
+            if (isEmpty()) {
+                return;
+            }
+            buffer.rewind();
+            for (int i = 0; i < count; i++) {
+                read(entities[i]);
+            }
+            if (Optional.ofNullable(camera).isPresent() && Optional.ofNullable(camera.getViewport()).isPresent()) {
+                Rectangle2D vp = camera.getViewport();
+                vp.setRect(camera.position.x, camera.position.y, vp.getWidth(), vp.getHeight());
+            }
+            boolean changed = scene.getEntities().size() != topLevelCount;
+            for (int i = 0; i < topLevelCount && !changed; i++) {
+                changed = scene.getEntity(entities[i].name) != entities[i];
+            }
+            if (changed) {
+                scene.clearEntities();
+                for (int i = 0; i < topLevelCount; i++) {
+                    scene.addEntity(entities[i]);
+                }
+            }
+        }
+
+        private void read(Entity e) {
+            e.position.x = buffer.getDouble();
+            e.position.y = buffer.getDouble();
+            e.velocity.x = buffer.getDouble();
+            e.velocity.y = buffer.getDouble();
+            e.acceleration.x = buffer.getDouble();
+            e.acceleration.y = buffer.getDouble();
+            e.life = buffer.getDouble();
+            e.active = buffer.get() == 1;
+            byte colors = buffer.get();
+            e.fgColor = readColor(e.fgColor, buffer.getInt(), (colors & HAS_FG_COLOR) != 0);
+            e.bgColor = readColor(e.bgColor, buffer.getInt(), (colors & HAS_BG_COLOR) != 0);
+            short attrCount = buffer.getShort();
+            for (int a = 0; a < attrCount; a++) {
+                String key = keys.get(buffer.getShort());
+                byte type = buffer.get();
+                long value = buffer.getLong();
+                // unchanged attributes are kept as is, to not box them again.
+                if (isSameAttribute(e.attributes.get(key), type, value)) {
+                    continue;
+                }
+                switch (type) {
+                    case ATTR_DOUBLE -> e.attributes.put(key, Double.longBitsToDouble(value));
+                    case ATTR_INTEGER -> e.attributes.put(key, (int) value);
+                    case ATTR_LONG -> e.attributes.put(key, value);
+                    default -> e.attributes.put(key, value == 1);
+                }
+            }
+            e.resetForces();
+        }
+
+        private static boolean isSameAttribute(Object current, byte type, long value) {
+            return switch (type) {
+                case ATTR_DOUBLE -> current instanceof Double v && Double.doubleToRawLongBits(v) == value;
+                case ATTR_INTEGER -> current instanceof Integer v && v == value;
+                case ATTR_LONG -> current instanceof Long v && v == value;
+                default -> current instanceof Boolean v && v == (value == 1);
+            };
+        }
+
+        /**
+         * Restore a color, keeping the current {@link Color} instance if it did not change.
+         */
+        private static Color readColor(Color current, int argb, boolean present) {
+            if (!present) {
+                return null;
+            }
+            return current != null && current.getRGB() == argb ? current : new Color(argb, true);
+        }
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        public void clear() {
+            buffer.clear().flip();
+            count = 0;
+            topLevelCount = 0;
+        }
+
+        /**
+         * @return a read-only view on the captured state.
+         */
+        public ByteBuffer getBuffer() {
+            return buffer.asReadOnlyBuffer();
+        }
 
+        /**
+         * Check if the other snapshot has been captured from the same entities, with the same state size.
+         *
+         * @param other the other snapshot to be compared with.
+         * @return true if the two snapshots can be compared byte by byte.
+         */
+        public boolean isSameLayout(SceneSnapshot other) {
+            if (count != other.count || topLevelCount != other.topLevelCount || buffer.limit() != other.buffer.limit()) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (entities[i] != other.entities[i]) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
-    public static class Camera extends Entity {
-        private Entity target;
+    /**
+     * The {@link RewindBuffer} keeps the last N ticks of the {@link Scene}'s state, to rewind or step
+     * the simulation back and forth, or to re-simulate from a past tick.
+     * <p>
+     * Only the latest state is kept as a full {@link SceneSnapshot}. Each tick is stored as the XOR delta
+     * between two consecutive states, run-length encoded on the zero bytes, in a ring of preallocated slots:
+     * applying a delta to a state moves it one tick backward or forward.
+     * The {@link InputActions} bits of each tick are kept with its delta, to simulate the tick again.
+     * <p>
+     * The state out of the entities is kept in full for each tick in history: the live contacts of the
+     * {@link ContactCache}, with their warm start impulses, and the state of the platform's and the {@link Scene}'s
+     * {@link SimulationRandom}. Restoring them lets a resting contact go on without a new enter event, and
+     * a re-simulated tick draw the same random values.
+     * Once warmed up, recording does not allocate, and memory is bounded by the number of ticks.
+     * <p>
+     * Adding or removing entities changes the state layout, and restarts the history.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class RewindBuffer {
+        private final byte[][] deltas;
+        private final int[] deltaLengths;
+        private final long[] ticks;
+        private final long[] inputs;
+        /**
+         * {@link InputActions} bits of the oldest tick in history, whose delta slot has been reused.
+         */
+        private long oldestInput;
+        private final ContactCache contacts;
+        private final SimulationRandom random;
+        /**
+         * State out of the entities, for each tick in history and the oldest one, indexed by tick
+         * (see {@link RewindBuffer#stateOf(long)}): the (source, destination) pairs of the contacts,
+         * their (normal x, normal y, impulse) solver state, and the random generators states.
+         */
+        private final Entity[][] contactPairs;
+        private final double[][] contactImpulses;
+        private final int[] contactCounts;
+        private final long[] randomStates;
+        private final long[] sceneRandomStates;
+        private SceneSnapshot latest = new SceneSnapshot();
+        private SceneSnapshot work = new SceneSnapshot();
+        private int head = 0;
+        private int size = 0;
+        /**
+         * Number of ticks the latest state has been rewound.
+         */
+        private int cursor = 0;
 
-        private Rectangle2D viewport;
-        private double tween;
+        public RewindBuffer(int nbTicks) {
+            this(nbTicks, null, null);
+        }
 
-        public Camera(String name) {
-            super(name);
+        /**
+         * @param nbTicks  the number of ticks kept in history.
+         * @param contacts the {@link ContactCache} whose contacts are kept with each tick, or null.
+         * @param random   the platform's {@link SimulationRandom} whose state is kept with each tick, or null.
+         */
+        public RewindBuffer(int nbTicks, ContactCache contacts, SimulationRandom random) {
+            this.deltas = new byte[nbTicks][];
+            this.deltaLengths = new int[nbTicks];
+            this.ticks = new long[nbTicks];
+            this.inputs = new long[nbTicks];
+            Arrays.fill(deltas, new byte[0]);
+            this.contacts = contacts;
+            this.random = random;
+            this.contactPairs = new Entity[nbTicks + 1][];
+            this.contactImpulses = new double[nbTicks + 1][];
+            this.contactCounts = new int[nbTicks + 1];
+            this.randomStates = new long[nbTicks + 1];
+            this.sceneRandomStates = new long[nbTicks + 1];
+            Arrays.fill(contactPairs, new Entity[0]);
+            Arrays.fill(contactImpulses, new double[0]);
+        }
+
+        public void record(Scene scene, long tick) {
+            record(scene, tick, 0);
         }
 
-        public Camera setTarget(Entity target) {
-            this.target = target;
-            return this;
+        /**
+         * Record the state of the {@link Scene} for this tick. If the state was rewound,
+         * the history after the rewound tick is discarded.
+         *
+         * @param scene     the {@link Scene} to be recorded.
+         * @param tick      the current tick number.
+         * @param inputBits the {@link InputActions} bits used to simulate this tick.
+         */
+        public void record(Scene scene, long tick, long inputBits) {
+            if (cursor > 0) {
+                head = Math.floorMod(head - cursor, deltas.length);
+                size -= cursor;
+                cursor = 0;
+            }
+            work.capture(scene);
+            if (!work.isSameLayout(latest)) {
+                size = 0;
+                oldestInput = inputBits;
+            } else {
+                if (size == deltas.length) {
+                    oldestInput = inputs[head];
+                }
+                encode(head, latest.buffer.array(), work.buffer.array(), work.buffer.limit());
+                ticks[head] = tick;
+                inputs[head] = inputBits;
+                head = (head + 1) % deltas.length;
+                size = Math.min(size + 1, deltas.length);
+            }
+            SceneSnapshot previous = latest;
+            latest = work;
+            work = previous;
+            captureState(stateOf(tick), scene);
         }
 
-        public Camera setViewport(Rectangle2D vp) {
-            this.viewport = vp;
-            return this;
+        /**
+         * History holds one more state than deltas: ticks from (latest - size) to latest are all kept
+         * at a different index.
+         */
+        private int stateOf(long tick) {
+            return Math.floorMod(tick, randomStates.length);
         }
 
-        public Camera setTweenFactor(double tf) {
-            this.tween = tf;
-            return this;
+        private void captureState(int index, Scene scene) {
+            if (Optional.ofNullable(random).isPresent()) {
+                randomStates[index] = random.getState();
+            }
+            if (scene instanceof AbstractScene as && as.getRandom() instanceof SimulationRandom sceneRandom) {
+                sceneRandomStates[index] = sceneRandom.getState();
+            }
+            if (Optional.ofNullable(contacts).isEmpty()) {
+                return;
+            }
+            Entity[] pairs = contactPairs[index];
+            double[] impulses = contactImpulses[index];
+            int count = 0;
+            for (Entity e : scene.getEntities()) {
+                for (int i = 0; i < e.collisions.size(); i++) {
+                    CollisionEvent ce = e.collisions.get(i);
+                    if (pairs.length < (count + 1) * 2) {
+                        pairs = contactPairs[index] = Arrays.copyOf(pairs, (count + 1) * 4);
+                        impulses = contactImpulses[index] = Arrays.copyOf(impulses, (count + 1) * 6);
+                    }
+                    pairs[count * 2] = ce.getSrc();
+                    pairs[count * 2 + 1] = ce.getDst();
+                    impulses[count * 3] = ce.solverNormalX;
+                    impulses[count * 3 + 1] = ce.solverNormalY;
+                    impulses[count * 3 + 2] = ce.normalImpulse;
+                    count++;
+                }
+            }
+            // do not keep the entities of an older recording alive.
+            Arrays.fill(pairs, count * 2, Math.max(count, contactCounts[index]) * 2, null);
+            contactCounts[index] = count;
         }
 
-        public Rectangle2D getViewport() {
-            return this.viewport;
+        private void restoreState(int index, Scene scene) {
+            if (Optional.ofNullable(random).isPresent()) {
+                random.setState(randomStates[index]);
+            }
+            if (scene instanceof AbstractScene as && as.getRandom() instanceof SimulationRandom sceneRandom) {
+                sceneRandom.setState(sceneRandomStates[index]);
+            }
+            if (Optional.ofNullable(contacts).isEmpty()) {
+                return;
+            }
+            contacts.clear();
+            Entity[] pairs = contactPairs[index];
+            double[] impulses = contactImpulses[index];
+            for (int i = 0; i < contactCounts[index]; i++) {
+                contacts.restore(pairs[i * 2], pairs[i * 2 + 1], impulses[i * 3], impulses[i * 3 + 1], impulses[i * 3 + 2]);
+            }
         }
 
-        public Entity getTarget() {
-            return this.target;
+        /**
+         * Restore the (possibly rewound) current state.
+         */
+        private void restore(Scene scene) {
+            latest.restore(scene);
+            restoreState(stateOf(getCurrentTick()), scene);
         }
 
-        public double getTweenFactor() {
-            return this.tween;
+        /**
+         * Encode the XOR delta between the two states as a list of (zero bytes run, literal length, literal bytes).
+         * The worst case alternates one equal and one different byte: 5 encoded bytes for 2 state bytes.
+         */
+        private void encode(int slot, byte[] from, byte[] to, int length) {
+            int maxLength = length / 2 * 5 + 8;
+            if (deltas[slot].length < maxLength) {
+                deltas[slot] = new byte[maxLength];
+            }
+            ByteBuffer out = ByteBuffer.wrap(deltas[slot]);
+            int i = 0;
+            while (i < length) {
+                int zeros = 0;
+                while (i < length && from[i] == to[i] && zeros < Short.MAX_VALUE) {
+                    i++;
+                    zeros++;
+                }
+                int start = i;
+                while (i < length && from[i] != to[i] && i - start < Short.MAX_VALUE) {
+                    i++;
+                }
+                out.putShort((short) zeros).putShort((short) (i - start));
+                for (int j = start; j < i; j++) {
+                    out.put((byte) (from[j] ^ to[j]));
+                }
+            }
+            deltaLengths[slot] = out.position();
         }
 
-        public void update(double dt) {
-            this.position.x += Math
-                .ceil((target.position.x + (target.w * 0.5) - ((viewport.getWidth()) * 0.5) - this.position.x)
-                    * tween * Math.min(dt, 10));
-            this.position.y += Math
-                .ceil((target.position.y + (target.h * 0.5) - ((viewport.getHeight()) * 0.5) - this.position.y)
-                    * tween * Math.min(dt, 10));
+        /**
+         * Apply the XOR delta of a slot onto a state, moving it one tick backward or forward.
+         */
+        private void apply(int slot, byte[] state) {
+            ByteBuffer in = ByteBuffer.wrap(deltas[slot], 0, deltaLengths[slot]);
+            int i = 0;
+            while (in.hasRemaining()) {
+                i += in.getShort();
+                int literal = in.getShort();
+                for (int j = 0; j < literal; j++, i++) {
+                    state[i] ^= in.get();
+                }
+            }
+        }
 
-            this.viewport.setRect(this.position.x, this.position.y, this.viewport.getWidth(),
-                this.viewport.getHeight());
+        /**
+         * Rewind the {@link Scene} one tick back in history.
+         *
+         * @param scene the {@link Scene} to be restored.
+         * @return false if there is no older tick in history.
+         */
+        public boolean stepBack(Scene scene) {
+            if (!back()) {
+                return false;
+            }
+            restore(scene);
+            return true;
+        }
+
+        private boolean back() {
+            if (cursor >= size) {
+                return false;
+            }
+            apply(Math.floorMod(head - 1 - cursor, deltas.length), latest.buffer.array());
+            cursor++;
+            return true;
+        }
+
+        /**
+         * Move the rewound {@link Scene} one tick forward in history.
+         *
+         * @param scene the {@link Scene} to be restored.
+         * @return false if the {@link Scene} is already at the latest recorded tick.
+         */
+        public boolean stepForward(Scene scene) {
+            if (!forward()) {
+                return false;
+            }
+            restore(scene);
+            return true;
+        }
+
+        private boolean forward() {
+            if (cursor == 0) {
+                return false;
+            }
+            cursor--;
+            apply(Math.floorMod(head - 1 - cursor, deltas.length), latest.buffer.array());
+            return true;
+        }
+
+        /**
+         * Rewind the {@link Scene} to the state recorded at the end of a past tick.
+         *
+         * @param scene the {@link Scene} to be restored.
+         * @param tick  the tick to rewind to.
+         * @return false if the tick is no more (or not yet) in history.
+         */
+        public boolean rewindTo(Scene scene, long tick) {
+            long latestTick = getLatestTick();
+            if (tick > latestTick || tick < latestTick - size) {
+                return false;
+            }
+            while (getCurrentTick() > tick && back()) {
+                // step back to the requested tick.
+            }
+            while (getCurrentTick() < tick && forward()) {
+                // step forward to the requested tick.
+            }
+            // the scene is only restored once, at the requested tick.
+            restore(scene);
+            return getCurrentTick() == tick;
+        }
+
+        /**
+         * @param tick a tick in history.
+         * @return the {@link InputActions} bits recorded for this tick, or 0 if it is not in history.
+         */
+        public long getInputBits(long tick) {
+            long latestTick = getLatestTick();
+            if (tick > latestTick || tick < latestTick - size) {
+                return 0;
+            }
+            return tick == latestTick - size ? oldestInput : inputs[slotOf(tick)];
+        }
+
+        /**
+         * Replace the {@link InputActions} bits of a past tick, e.g. with a late input, before simulating
+         * again from that tick with {@link KarmaPlatform#resimulateFrom(long)}.
+         *
+         * @param tick a tick in history.
+         * @param bits the new input bits for this tick.
+         * @return false if the tick is no more (or not yet) in history.
+         */
+        public boolean setInputBits(long tick, long bits) {
+            long latestTick = getLatestTick();
+            if (tick > latestTick || tick <= latestTick - size) {
+                return false;
+            }
+            inputs[slotOf(tick)] = bits;
+            return true;
+        }
+
+        private int slotOf(long tick) {
+            return Math.floorMod(head - 1 - (int) (getLatestTick() - tick), deltas.length);
+        }
+
+        /**
+         * @return the tick of the latest recorded state.
+         */
+        public long getLatestTick() {
+            return size == 0 ? -1 : ticks[Math.floorMod(head - 1, deltas.length)];
+        }
+
+        /**
+         * @return the tick of the (possibly rewound) current state.
+         */
+        public long getCurrentTick() {
+            return getLatestTick() - cursor;
+        }
+
+        public boolean isRewound() {
+            return cursor > 0;
+        }
+
+        public void reset() {
+            size = 0;
+            cursor = 0;
+            latest.clear();
+            for (int i = 0; i < contactPairs.length; i++) {
+                Arrays.fill(contactPairs[i], null);
+                contactCounts[i] = 0;
+            }
         }
     }
 
     public static class CollisionEvent {
 
-        private final Entity srcCollision;
-        private final Entity dstCollision;
+        private Entity srcCollision;
+        private Entity dstCollision;
         private Vector2D collisionNormal;
         private double penetrationDepth;
         private CollisionSide side;
+        /**
+         * {@link ContactCache} key of the pair, and contact stamp of the source {@link Entity}'s last detection.
+         */
+        private long key;
+        private int stamp;
+        /**
+         * {@link ContactSolver} state, kept between ticks to warm start the contact.
+         */
+        private double solverNormalX, solverNormalY;
+        private double normalImpulse, normalMass, velocityBias;
+        private int round = -1;
 
         public CollisionEvent(Entity src, Entity dst) {
             srcCollision = src;
             dstCollision = dst;
         }
 
+        private CollisionEvent set(Entity src, Entity dst) {
+            srcCollision = src;
+            dstCollision = dst;
+            return this;
+        }
+
         public Entity getSrc() {
             return srcCollision;
         }
@@ -1385,9 +5630,401 @@ public class KarmaPlatform extends JPanel implements KeyListener {
 
         @Override
         public boolean equals(Object obj) {
-            CollisionEvent other = (CollisionEvent) obj;
-            return (other.getDst().equals(this.getDst()) && this.getSrc().equals(other.getSrc()))
-                    || (this.getSrc().equals(other.getDst()) && this.getDst().equals(other.getSrc()));
+            if (!(obj instanceof CollisionEvent other)) {
+                return false;
+            }
+            return (Objects.equals(other.getDst(), this.getDst()) && Objects.equals(this.getSrc(), other.getSrc()))
+                    || (Objects.equals(this.getSrc(), other.getDst()) && Objects.equals(this.getDst(), other.getSrc()));
+        }
+
+        @Override
+        public int hashCode() {
+            // symmetric, as equals() does not care about the pair order.
+            return Objects.hashCode(srcCollision) ^ Objects.hashCode(dstCollision);
+        }
+    }
+
+    /**
+     * The {@link ContactCache} keeps the {@link CollisionEvent}s alive between ticks, in an open addressing hash table
+     * keyed by the packed ids of the (source, destination) {@link Entity} pair.
+     * <p>
+     * A contact found again on the next tick reuses its {@link CollisionEvent}, and a removed contact is kept in a
+     * pool to be reused by the next new one. This lets the engine raise
+     * {@link Behavior#onCollisionEnter(CollisionEvent)}, {@link Behavior#onCollisionStay(CollisionEvent)} and
+     * {@link Behavior#onCollisionExit(CollisionEvent)} on transitions, without allocating events every tick.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class ContactCache {
+        private static final long EMPTY = 0L;
+        private long[] keys = new long[64];
+        private CollisionEvent[] values = new CollisionEvent[64];
+        private int size = 0;
+        private final List<CollisionEvent> pool = new ArrayList<>();
+
+        /**
+         * Pack the ids of an {@link Entity} pair into a single key, keeping their lower 32 bits.
+         * The pair of an {@link Entity} with itself is never a contact, so a zero key means an empty slot.
+         *
+         * @param src the source Entity.
+         * @param dst the destination Entity.
+         * @return the pair key.
+         */
+        public static long pairId(Entity src, Entity dst) {
+            return (src.id << 32) | (dst.id & 0xFFFFFFFFL);
+        }
+
+        private static int hash(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        /**
+         * @param key the pair key.
+         * @return the {@link CollisionEvent} of this pair, or null if they are not in contact.
+         */
+        public CollisionEvent find(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key, mask); keys[i] != EMPTY; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Create a new contact, reusing a pooled {@link CollisionEvent} if any.
+         *
+         * @param key the pair key.
+         * @param src the source Entity.
+         * @param dst the destination Entity.
+         * @return the {@link CollisionEvent} of the new contact.
+         */
+        public CollisionEvent add(long key, Entity src, Entity dst) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            CollisionEvent ce = pool.isEmpty() ? new CollisionEvent(src, dst) : pool.remove(pool.size() - 1).set(src, dst);
+            ce.key = key;
+            int mask = keys.length - 1;
+            int i = hash(key, mask);
+            while (keys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = ce;
+            size++;
+            return ce;
+        }
+
+        /**
+         * Restore a contact recorded by the {@link RewindBuffer}, with its warm start impulse. No enter event
+         * is raised: the next collision detection goes on with it as an ongoing contact.
+         *
+         * @param src     the source Entity.
+         * @param dst     the destination Entity.
+         * @param normalX the x of the contact normal of the {@link ContactSolver}.
+         * @param normalY the y of the contact normal of the {@link ContactSolver}.
+         * @param impulse the impulse accumulated by the {@link ContactSolver}.
+         * @return the {@link CollisionEvent} of the restored contact.
+         */
+        public CollisionEvent restore(Entity src, Entity dst, double normalX, double normalY, double impulse) {
+            CollisionEvent ce = add(pairId(src, dst), src, dst);
+            src.register(ce);
+            ce.stamp = src.contactStamp;
+            ce.solverNormalX = normalX;
+            ce.solverNormalY = normalY;
+            ce.normalImpulse = impulse;
+            return ce;
+        }
+
+        /**
+         * Remove a contact, only if it is still mapped to this {@link CollisionEvent}.
+         * The removed slots are filled back by shifting the following entries of the probe sequence.
+         *
+         * @param ce the CollisionEvent to be removed.
+         */
+        public void remove(CollisionEvent ce) {
+            int mask = keys.length - 1;
+            int i = hash(ce.key, mask);
+            while (keys[i] != ce.key || values[i] != ce) {
+                if (keys[i] == EMPTY) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            size--;
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int h = hash(keys[j], mask);
+                // move the entry back if its home slot is not between the hole and its current slot.
+                if ((j > i && (h <= i || h > j)) || (j < i && h <= i && h > j)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            keys[i] = EMPTY;
+            values[i] = null;
+        }
+
+        /**
+         * Give back a removed {@link CollisionEvent}, to be reused by a next contact.
+         *
+         * @param ce the CollisionEvent to be reused.
+         */
+        public void release(CollisionEvent ce) {
+            ce.solverNormalX = 0;
+            ce.solverNormalY = 0;
+            ce.normalImpulse = 0;
+            ce.round = -1;
+            pool.add(ce.set(null, null));
+        }
+
+        /**
+         * Release all the contacts without any exit event, e.g. when the entities state has been restored
+         * or the {@link Scene} has changed: the next collision detection starts from scratch.
+         */
+        public void clear() {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    values[i].getSrc().collisions.clear();
+                    release(values[i]);
+                    keys[i] = EMPTY;
+                    values[i] = null;
+                }
+            }
+            size = 0;
+        }
+
+        /**
+         * Release the contacts of an {@link Entity} removed from the {@link Scene}, without any exit event.
+         * The contacts of the other entities with this one end at their next collision detection.
+         *
+         * @param e the removed Entity.
+         */
+        public void clear(Entity e) {
+            for (CollisionEvent ce : e.collisions) {
+                remove(ce);
+                release(ce);
+            }
+            e.collisions.clear();
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            CollisionEvent[] oldValues = values;
+            keys = new long[capacity];
+            values = new CollisionEvent[capacity];
+            int mask = capacity - 1;
+            for (int k = 0; k < oldKeys.length; k++) {
+                if (oldKeys[k] != EMPTY) {
+                    int i = hash(oldKeys[k], mask);
+                    while (keys[i] != EMPTY) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[k];
+                    values[i] = oldValues[k];
+                }
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The {@link ContactSolver} resolves all the contacts of a tick together, with sequential impulses:
+     * <ul>
+     *     <li>each contact is prepared with an axis aligned normal (the axis of least overlap of the two boxes),
+     *     and warm started with the impulse accumulated on the previous tick, kept by the {@link ContactCache},</li>
+     *     <li>N velocity iterations apply the impulse needed by each contact in turn, the accumulated impulse
+     *     of a contact being clamped to stay positive (contacts only push),</li>
+     *     <li>the remaining penetration is removed by a Baumgarte position correction, with a slop to let resting
+     *     contacts touch without being pushed apart on each tick.</li>
+     * </ul>
+     * Restitution only applies above an approaching speed threshold, so that resting bodies do not bounce.
+     *
+     * @author Frédéric Delorme
+     */
+    public static class ContactSolver {
+        private final List<CollisionEvent> contacts = new ArrayList<>();
+        private int iterations = 8;
+        private int positionIterations = 2;
+        private double baumgarte = 0.8;
+        private double slop = 0.5;
+        private double restitutionThreshold = 0.001;
+        private int round = 0;
+
+        /**
+         * Add a contact to be solved on this tick. The contact of the reversed pair, if already added on
+         * this tick, is the same constraint, and the new one is ignored.
+         *
+         * @param ce    the {@link CollisionEvent} of the contact.
+         * @param cache the {@link ContactCache} to look for the reversed pair.
+         */
+        public void add(CollisionEvent ce, ContactCache cache) {
+            CollisionEvent reverse = cache.find(ContactCache.pairId(ce.getDst(), ce.getSrc()));
+            if (reverse != null && reverse.round == round) {
+                return;
+            }
+            ce.round = round;
+            contacts.add(ce);
+        }
+
+        /**
+         * Solve the contacts added since the previous call.
+         *
+         * @param world the {@link World} providing the velocity limits.
+         */
+        public void solve(World world) {
+            for (CollisionEvent ce : contacts) {
+                prepare(ce);
+            }
+            for (int i = 0; i < iterations; i++) {
+                for (CollisionEvent ce : contacts) {
+                    solveVelocity(ce);
+                }
+            }
+            for (int i = 0; i < positionIterations; i++) {
+                for (CollisionEvent ce : contacts) {
+                    solvePosition(ce);
+                }
+            }
+            for (CollisionEvent ce : contacts) {
+                if (ce.getSrc() != null) {
+                    limitVelocity(world, ce.getSrc());
+                    limitVelocity(world, ce.getDst());
+                }
+            }
+            contacts.clear();
+            round++;
+        }
+
+        private static double inverseMass(Entity e) {
+            return e.getPhysicType() == PhysicType.DYNAMIC ? 1.0 / e.getMass() : 0.0;
+        }
+
+        private void prepare(CollisionEvent ce) {
+            Entity a = ce.getSrc();
+            Entity b = ce.getDst();
+            if (a == null) {
+                ce.normalMass = 0;
+                return;
+            }
+            double ia = inverseMass(a);
+            double ib = inverseMass(b);
+            ce.normalMass = ia + ib > 0 ? 1.0 / (ia + ib) : 0;
+            Rectangle2D ba = a.getBox();
+            Rectangle2D bb = b.getBox();
+            double ox = Math.min(ba.getMaxX(), bb.getMaxX()) - Math.max(ba.getMinX(), bb.getMinX());
+            double oy = Math.min(ba.getMaxY(), bb.getMaxY()) - Math.max(ba.getMinY(), bb.getMinY());
+            double nx = 0, ny = 0;
+            if (ox < oy) {
+                nx = bb.getCenterX() >= ba.getCenterX() ? 1 : -1;
+            } else {
+                ny = bb.getCenterY() >= ba.getCenterY() ? 1 : -1;
+            }
+            if (nx != ce.solverNormalX || ny != ce.solverNormalY) {
+                // a new contact direction: the previous impulse does not apply anymore.
+                ce.normalImpulse = 0;
+                ce.solverNormalX = nx;
+                ce.solverNormalY = ny;
+            }
+            double vn = (b.velocity.x - a.velocity.x) * nx + (b.velocity.y - a.velocity.y) * ny;
+            double elasticity = a.getMaterial().elasticity * b.getMaterial().elasticity;
+            ce.velocityBias = vn < -restitutionThreshold ? -elasticity * vn : 0;
+            // warm start with the impulse of the previous tick.
+            applyImpulse(ce, ia, ib, ce.normalImpulse);
+        }
+
+        private void solveVelocity(CollisionEvent ce) {
+            if (ce.normalMass == 0) {
+                return;
+            }
+            Entity a = ce.getSrc();
+            Entity b = ce.getDst();
+            double vn = (b.velocity.x - a.velocity.x) * ce.solverNormalX + (b.velocity.y - a.velocity.y) * ce.solverNormalY;
+            double lambda = ce.normalMass * (ce.velocityBias - vn);
+            double accumulated = Math.max(ce.normalImpulse + lambda, 0);
+            lambda = accumulated - ce.normalImpulse;
+            ce.normalImpulse = accumulated;
+            applyImpulse(ce, inverseMass(a), inverseMass(b), lambda);
+        }
+
+        private static void applyImpulse(CollisionEvent ce, double ia, double ib, double lambda) {
+            if (lambda == 0) {
+                return;
+            }
+            Entity a = ce.getSrc();
+            Entity b = ce.getDst();
+            a.velocity.x -= ce.solverNormalX * lambda * ia;
+            a.velocity.y -= ce.solverNormalY * lambda * ia;
+            b.velocity.x += ce.solverNormalX * lambda * ib;
+            b.velocity.y += ce.solverNormalY * lambda * ib;
+        }
+
+        private void solvePosition(CollisionEvent ce) {
+            if (ce.normalMass == 0) {
+                return;
+            }
+            Entity a = ce.getSrc();
+            Entity b = ce.getDst();
+            Rectangle2D ba = a.getBox();
+            Rectangle2D bb = b.getBox();
+            double depth = ce.solverNormalX != 0
+                ? Math.min(ba.getMaxX(), bb.getMaxX()) - Math.max(ba.getMinX(), bb.getMinX())
+                : Math.min(ba.getMaxY(), bb.getMaxY()) - Math.max(ba.getMinY(), bb.getMinY());
+            double correction = baumgarte * Math.max(depth - slop, 0) * ce.normalMass;
+            if (correction > 0) {
+                double ia = inverseMass(a);
+                double ib = inverseMass(b);
+                a.position.x -= ce.solverNormalX * correction * ia;
+                a.position.y -= ce.solverNormalY * correction * ia;
+                b.position.x += ce.solverNormalX * correction * ib;
+                b.position.y += ce.solverNormalY * correction * ib;
+            }
+        }
+
+        private static void limitVelocity(World world, Entity e) {
+            if (e.getPhysicType() == PhysicType.DYNAMIC) {
+                e.velocity.limit(world.getVelocityMax());
+            }
+        }
+
+        public ContactSolver setIterations(int iterations) {
+            this.iterations = iterations;
+            return this;
+        }
+
+        public ContactSolver setPositionIterations(int positionIterations) {
+            this.positionIterations = positionIterations;
+            return this;
+        }
+
+        /**
+         * @param baumgarte the part of the penetration removed on each position iteration.
+         * @param slop      the penetration allowed without correction.
+         * @return this updated ContactSolver (thanks to fluent API).
+         */
+        public ContactSolver setPositionCorrection(double baumgarte, double slop) {
+            this.baumgarte = baumgarte;
+            this.slop = slop;
+            return this;
+        }
+
+        public ContactSolver setRestitutionThreshold(double threshold) {
+            this.restitutionThreshold = threshold;
+            return this;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public int getContactCount() {
+            return contacts.size();
         }
     }
 
@@ -1413,6 +6050,21 @@ public class KarmaPlatform extends JPanel implements KeyListener {
             messages.getString("app.version"));
         config = new Configuration(this);
         config.load(configFilePath);
+        registerDefaultRenderers();
+    }
+
+    /**
+     * Register the {@link Renderer}s for the {@link Entity} types provided by the engine.
+     */
+    private void registerDefaultRenderers() {
+        renderers.register(Entity.class, entityRenderer);
+        renderers.register(TextObject.class, textRenderer);
+        renderers.register(GridObject.class, gridRenderer);
+        renderers.register(TileMap.class, tileMapRenderer);
+        renderers.register(Disturbance.class, disturbanceRenderer);
+        // the camera is not a visual entity.
+        renderers.register(Camera.class, (app, g, e) -> {
+        });
     }
 
     public void run(String[] args) {
@@ -1431,6 +6083,11 @@ public class KarmaPlatform extends JPanel implements KeyListener {
     private void init(String[] args) {
         // get configuration values.
         config.parseCLI(args);
+        if (dirtyRendering && (threadedRendering || renderBands > 1)) {
+            // the threaded and band rendering paths always draw the whole frame.
+            error("app.rendering.dirty is not supported with app.rendering.threaded or app.rendering.bands, it is deactivated");
+            dirtyRendering = false;
+        }
         // Create window
         frame = new JFrame(String.format("%s (%s)",
             messages.getString("app.name"),
@@ -1447,8 +6104,30 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         frame.requestFocus();
         // Prepare drawing buffer.
         buffer = new BufferedImage(resSize.width, resSize.height, BufferedImage.TYPE_4BYTE_ABGR);
+        if (threadedRendering) {
+            rendering = true;
+            renderThread = new Thread(this::renderLoop, "karma-renderer");
+            renderThread.setDaemon(true);
+            renderThread.start();
+        }
 
         spacePartition = new SpacePartition(this);
+        if (world.isStreamingEnabled()) {
+            streamer = new WorldStreamer(world);
+            streamer.start();
+        }
+        // record or replay the input actions
+        if (!inputReplayPath.isEmpty()) {
+            inputActions.startReplay(Path.of(inputReplayPath));
+        } else if (!inputRecordPath.isEmpty()) {
+            inputActions.startRecording(Path.of(inputRecordPath));
+        }
+        // record or verify the simulation checksums
+        if (!checksumVerifyPath.isEmpty()) {
+            simulationChecksum.startVerifying(Path.of(checksumVerifyPath));
+        } else if (!checksumRecordPath.isEmpty()) {
+            simulationChecksum.startRecording(Path.of(checksumRecordPath));
+        }
     }
 
 
@@ -1471,15 +6150,36 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         double drawTime = 0;
         int frameRate = 0;
         Map<String, Object> stats = new HashMap<>();
+        double accumulator = 0;
         while (!isExit() && !isTestMode()) {
             current = System.currentTimeMillis();
             delta = current - previous;
-            input();
-            update(delta, stats);
+            if (paused) {
+                // only process the keys to resume, rewind or step the simulation.
+                processPausedKeyEvents();
+                stepPaused(stats);
+                accumulator = 0;
+            } else if (fixedDelta > 0) {
+                // deterministic mode: the simulation only sees fixed time steps.
+                accumulator += delta;
+                while (accumulator >= fixedDelta && !paused) {
+                    step(fixedDelta, stats);
+                    accumulator -= fixedDelta;
+                }
+            } else {
+                step(delta, stats);
+            }
             // draw only 60 times a second.
             drawTime += delta;
             if (drawTime > (1000.0 / 60.0)) {
-                draw(stats);
+                if (threadedRendering) {
+                    publishRenderFrame(stats);
+                } else if (renderBands > 1) {
+                    fillRenderFrame(bandFrame, stats);
+                    drawFrame(bandFrame);
+                } else {
+                    draw(stats);
+                }
                 drawTime = 0;
                 frameCount++;
             }
@@ -1496,6 +6196,85 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         }
     }
 
+    /**
+     * Process one simulation tick: input, update and, if requested, the state checksum.
+     *
+     * @param d     the elapsed time for this tick.
+     * @param stats the statistics map.
+     */
+    private void step(double d, Map<String, Object> stats) {
+        // switch to the asynchronously prepared scene at tick boundary.
+        sceneManager.swap();
+        input();
+        update(d, stats);
+        tick++;
+        simulationChecksum.update(tick, sceneManager.getCurrent().getEntities());
+        if (Optional.ofNullable(rewindBuffer).isPresent()) {
+            rewindBuffer.record(sceneManager.getCurrent(), tick, inputActions.getBits());
+        }
+    }
+
+    /**
+     * Step the paused simulation one tick back or forward, as requested with [F6] or [F7].
+     * Stepping forward after the latest recorded tick simulates a new tick.
+     *
+     * @param stats the statistics map.
+     */
+    private void stepPaused(Map<String, Object> stats) {
+        if (stepRequest < 0) {
+            rewindBuffer.stepBack(sceneManager.getCurrent());
+        } else if (stepRequest > 0 && !rewindBuffer.stepForward(sceneManager.getCurrent())) {
+            step(fixedDelta > 0 ? fixedDelta : 1000.0 / 60.0, stats);
+        }
+        stepRequest = 0;
+    }
+
+    /**
+     * Process one simulation tick out of the game loop, e.g. from tests or tools.
+     *
+     * @param d the elapsed time for this tick.
+     */
+    public void step(double d) {
+        step(d, new HashMap<>());
+    }
+
+    /**
+     * Rewind the simulation to a past tick and simulate again up to the current tick,
+     * e.g. after a late input has been received for that past tick (see {@link RewindBuffer#setInputBits(long, long)}).
+     * Each tick goes through the same {@link KarmaPlatform#step(double, Map)} path, with its recorded
+     * {@link InputActions} bits in place of the keyboard.
+     * This requires a fixed time step and the rewind buffer to be activated.
+     *
+     * @param pastTick the tick to re-simulate from.
+     * @return false if the simulation can not be re-simulated from that tick.
+     */
+    public boolean resimulateFrom(long pastTick) {
+        if (fixedDelta <= 0 || Optional.ofNullable(rewindBuffer).isEmpty()) {
+            error("Re-simulation requires app.simulation.fixed.delta and app.simulation.rewind.ticks");
+            return false;
+        }
+        long currentTick = tick;
+        long[] history = new long[(int) Math.max(0, currentTick - pastTick)];
+        for (int i = 0; i < history.length; i++) {
+            history[i] = rewindBuffer.getInputBits(pastTick + 1 + i);
+        }
+        if (!rewindBuffer.rewindTo(sceneManager.getCurrent(), pastTick)) {
+            return false;
+        }
+        inputActions.setBits(rewindBuffer.getInputBits(pastTick));
+        Map<String, Object> stats = new HashMap<>();
+        tick = pastTick;
+        for (long bits : history) {
+            inputActions.override(bits);
+            step(fixedDelta, stats);
+        }
+        return true;
+    }
+
+    public RewindBuffer getRewindBuffer() {
+        return rewindBuffer;
+    }
+
     public boolean isTestMode() {
         return testMode;
     }
@@ -1505,6 +6284,7 @@ public class KarmaPlatform extends JPanel implements KeyListener {
      * and all the {@link Behavior}'s on {@link Scene}'s {@link Entity}.
      */
     public void input() {
+        processKeyEvents();
         sceneManager.getCurrent().input(this);
         // process all input behaviors
         sceneManager.getCurrent().getEntities().stream()
@@ -1512,6 +6292,66 @@ public class KarmaPlatform extends JPanel implements KeyListener {
             .forEach(this::processInput);
     }
 
+    /**
+     * Drain the {@link KeyEvent}s queued by the AWT thread since the previous tick,
+     * build the tick's {@link InputSnapshot} and process the released keys on the game thread.
+     */
+    private void processKeyEvents() {
+        inputSnapshot.clearEdges();
+        if (inputActions.isOverridden()) {
+            // a past tick is simulated again: the queued key events wait for the next live tick.
+            inputActions.update(inputSnapshot);
+            return;
+        }
+        boolean replaying = inputActions.isReplaying();
+        KeyEvent e;
+        while ((e = pausedKeyEvents.isEmpty() ? keyEvents.poll() : pausedKeyEvents.poll()) != null) {
+            if (replaying && e.getKeyCode() != KeyEvent.VK_ESCAPE) {
+                // the keyboard is replaced by the replayed key events, except to quit.
+                continue;
+            }
+            inputActions.recordKey(e);
+            applyKeyEvent(e);
+        }
+        inputActions.update(inputSnapshot);
+        for (int i = 0; i < inputActions.getReplayedKeyCount(); i++) {
+            applyKeyEvent(InputActions.unpackKey(this, inputActions.getReplayedKey(i)));
+        }
+    }
+
+    /**
+     * Drain the {@link KeyEvent}s queued while paused: only the pause control keys ([ESCAPE], [P], [F6]
+     * and [F7]) are processed, the other ones are kept for the next simulated tick, so that the
+     * {@link InputActions} neither record nor replay anything while paused.
+     */
+    private void processPausedKeyEvents() {
+        KeyEvent e;
+        while ((e = keyEvents.poll()) != null) {
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_ESCAPE, KeyEvent.VK_P, KeyEvent.VK_F6, KeyEvent.VK_F7 -> {
+                    if (e.getID() == KeyEvent.KEY_RELEASED) {
+                        processKeyReleased(e);
+                    }
+                }
+                default -> pausedKeyEvents.add(e);
+            }
+        }
+    }
+
+    /**
+     * Apply a key event, from the keyboard or from the replayed log, onto the current tick's {@link InputSnapshot}.
+     *
+     * @param e the {@link KeyEvent} to be applied.
+     */
+    private void applyKeyEvent(KeyEvent e) {
+        if (e.getID() == KeyEvent.KEY_PRESSED) {
+            inputSnapshot.press(e.getKeyCode());
+        } else if (e.getID() == KeyEvent.KEY_RELEASED) {
+            inputSnapshot.release(e.getKeyCode());
+            processKeyReleased(e);
+        }
+    }
+
     /**
      * Process the specific input for an {@link Entity}
      *
@@ -1541,31 +6381,108 @@ public class KarmaPlatform extends JPanel implements KeyListener {
     public void update(double d, Map<String, Object> stats) {
 
         Collection<Entity> entities = sceneManager.getCurrent().getEntities();
+        // attach/detach the streamed chunks around the camera.
+        if (Optional.ofNullable(streamer).isPresent()) {
+            // the unloaded entities leave their contacts behind.
+            streamer.update(sceneManager.getCurrent(), sceneManager.getCurrent().getCamera()).forEach(contacts::clear);
+        }
         cullingProcess(this, d);
+        Camera cam = sceneManager.getCurrent().getCamera();
+        Rectangle2D viewport = Optional.ofNullable(cam).isPresent() ? cam.getViewport() : null;
         entities.stream()
-            .filter(Entity::isActive)
+            .filter(e -> e.isActive() && !e.isFrozen())
             .forEach(e -> {
                 if (!e.getPhysicType().equals(PhysicType.NONE)) {
-
-                    // if concerned, apply World disturbances.
-                    applyWorldDisturbance(world, e, d);
-                    // compute physic on the Entity (velocity & position)
-                    applyPhysics(world, e, d);
-                    // detect collision and apply response
-                    detectCollision(world, e, d);
-                    // update the entity (lifetime and active status)
-                    e.update(d);
-                    // update the bounding box for that entity
-                    e.updateBox();
+                    UpdateLOD lod = e.getPhysicType().equals(PhysicType.DYNAMIC) ? e.getUpdateLOD(viewport) : UpdateLOD.NEAR;
+                    switch (lod) {
+                        case NEAR -> {
+                            // a MID accumulation left behind must not be replayed later.
+                            e.lodElapsed = 0;
+                            e.lodTicks = 0;
+                            updatePhysicEntity(e, d);
+                        }
+                        case MID -> {
+                            // update only every lodRate ticks with the accumulated elapsed time.
+                            e.lodElapsed += d;
+                            if (++e.lodTicks >= e.lodRate) {
+                                updatePhysicEntity(e, e.lodElapsed);
+                                e.lodElapsed = 0;
+                                e.lodTicks = 0;
+                            }
+                        }
+                        case FAR -> {
+                            // only behaviors, no disturbance, physic nor collision.
+                            e.lodElapsed = 0;
+                            e.lodTicks = 0;
+                            e.getBehaviors().forEach(b -> b.onUpdate(this, e, d));
+                            e.update(d);
+                        }
+                    }
                 }
             });
+        if (solver.getIterations() > 0) {
+            solver.solve(world);
+        }
+        updateParticles(d);
         sceneManager.getCurrent().update(this, d);
-        Camera cam = sceneManager.getCurrent().getCamera();
         if (Optional.ofNullable(cam).isPresent()) {
             cam.update(d);
         }
     }
 
+    /**
+     * Update the {@link World}'s {@link ParticleSystem}s against the boxes of the active
+     * {@link PhysicType#STATIC} entities and the active {@link TileMap}s.
+     *
+     * @param d the elapsed time since the previous call.
+     */
+    private void updateParticles(double d) {
+        if (world.getParticleSystems().isEmpty()) {
+            return;
+        }
+        int n = 0;
+        for (Entity e : sceneManager.getCurrent().getEntities()) {
+            if (e.isActive() && e.getPhysicType() == PhysicType.STATIC && !(e instanceof TileMap)) {
+                if ((n + 1) * 4 > particleStatics.length) {
+                    particleStatics = Arrays.copyOf(particleStatics, particleStatics.length * 2);
+                }
+                Rectangle2D b = e.getBox();
+                particleStatics[n * 4] = b.getMinX();
+                particleStatics[n * 4 + 1] = b.getMinY();
+                particleStatics[n * 4 + 2] = b.getMaxX();
+                particleStatics[n * 4 + 3] = b.getMaxY();
+                n++;
+            }
+        }
+        for (ParticleSystem ps : world.getParticleSystems()) {
+            ps.update(world, particleStatics, n, tileMaps, d);
+        }
+    }
+
+    /**
+     * Fully update an {@link Entity}: disturbances, physic, collisions and lifetime.
+     *
+     * @param e the Entity to be updated.
+     * @param d the elapsed time since the previous update of this Entity.
+     */
+    private void updatePhysicEntity(Entity e, double d) {
+        // if concerned, apply World disturbances.
+        applyWorldDisturbance(world, e, d);
+        // compute physic on the Entity (velocity & position)
+        applyPhysics(world, e, d);
+        // keep the Entity out of the TileMap's solid tiles
+        applyTileMapCollision(e);
+        // detect collision and apply response
+        detectCollision(world, e, d);
+        // update the entity (lifetime and active status)
+        e.update(d);
+        if (!e.isActive() && !e.collisions.isEmpty()) {
+            // end the contacts of a deactivated entity.
+            e.contactStamp++;
+            releaseContacts(e);
+        }
+    }
+
     /**
      * Apply the physic mechanics from the physic engine on the specified {@link Entity} instance,
      * applying the {@link World} context.
@@ -1586,33 +6503,32 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         // apply velocity computation
         if (entity.getPhysicType().equals(PhysicType.DYNAMIC)) {
 
+            // accumulate the persistent force generators
+            for (ForceGenerator fg : entity.forceGenerators) {
+                fg.apply(entity, d);
+            }
             // compute acceleration for this Entity
-            entity.acceleration = entity.acceleration
-                    .addAll(entity.forces)
-                    .limit(world.getAccelerationMax());
+            entity.acceleration.x = entity.forceX;
+            entity.acceleration.y = entity.forceY;
+            entity.acceleration.limit(world.getAccelerationMax());
 
-            // Compute velocity based on acceleration of this Entity
-            entity.velocity = entity.velocity
-                    .add(world.getGravity().multiply(-0.01))
-                    .add(entity.acceleration.multiply(d))
-                    .limit(world.getVelocityMax());
+            // Compute velocity based on gravity, impulses and acceleration of this Entity
+            entity.velocity.x += world.getGravity().x * -0.01 + entity.impulseX / entity.mass + entity.acceleration.x * d;
+            entity.velocity.y += world.getGravity().y * -0.01 + entity.impulseY / entity.mass + entity.acceleration.y * d;
+            entity.velocity.limit(world.getVelocityMax());
 
             // Compute position according to velocity
-            entity.position = entity.position.add(entity.getVelocity().multiply(d));
+            entity.position.x += entity.velocity.x * d;
+            entity.position.y += entity.velocity.y * d;
 
-            // Update the bounding box.
-            entity.updateBox();
             // apply possible behavior#update
             if (!entity.getBehaviors().isEmpty()) {
                 entity.getBehaviors().forEach(b -> {
                     b.onUpdate(this, entity, d);
-                    entity.updateBox();
                 });
             }
             // keep entity in the KarmaApp area
             keepInPlayArea(world, entity);
-            // update the box for the entity.
-            entity.updateBox();
             // apply physic computation on children (if any)
             entity.getChild().stream().filter(Entity::isActive).forEach(c -> {
                 applyPhysics(world, c, d);
@@ -1624,17 +6540,21 @@ public class KarmaPlatform extends JPanel implements KeyListener {
 
     /**
      * Apply all the {@link Disturbance} from the {@link World} when required on the {@link Entity}.
+     * <p>
+     * The combined force of the {@link Disturbance}s covering the {@link Entity}'s center is retrieved
+     * from the {@link World}'s {@link DisturbanceIndex} with a single lookup.
      *
      * @param world  the World instance
      * @param entity the Entity to be modified by {@link Disturbance} world's list.
      * @param d      the elapsed time since previous call.
      */
     private void applyWorldDisturbance(World world, Entity entity, double d) {
-        for (Disturbance dist : world.disturbances) {
-            if (dist.box.intersects(entity.box) || dist.box.contains(entity.box)) {
-                // TODO add forces and acceleration to Entity.
-                entity.forces.addAll(dist.forces);
-            }
+        if (world.disturbances.isEmpty()) {
+            return;
+        }
+        Vector2D force = world.getDisturbanceForce(entity.getBox().getCenterX(), entity.getBox().getCenterY());
+        if (force != null) {
+            entity.applyForce(force.x, force.y);
         }
     }
 
@@ -1647,7 +6567,7 @@ public class KarmaPlatform extends JPanel implements KeyListener {
     private void keepInPlayArea(World w, Entity e) {
         if (e.getPhysicType().equals(PhysicType.DYNAMIC)) {
             Rectangle2D playArea = w.getPlayArea();
-            if (!playArea.contains(e.box)) {
+            if (!playArea.contains(e.getBox())) {
                 double elasticity = Math.min(e.getMaterial().elasticity, 1.0);
                 if (e.position.x < playArea.getX()) {
                     e.velocity.x = e.velocity.x * -elasticity;
@@ -1665,7 +6585,6 @@ public class KarmaPlatform extends JPanel implements KeyListener {
                     e.velocity.y = e.velocity.y * -elasticity;
                     e.position.y = playArea.getY() + playArea.getHeight() - e.h;
                 }
-                e.updateBox();
             }
         }
     }
@@ -1684,14 +6603,33 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         List<Entity> collisionList = new CopyOnWriteArrayList<>();
         spacePartition.find(collisionList, e);
         collisionCounter = 0;
-        e.clearRegisteredCollisions();
+        e.contactStamp++;
         collisionList.forEach(o -> {
             if (e.isActive() && !o.equals(e) && o.isActive()
-                && !o.getPhysicType().equals(PhysicType.NONE)) {
+                && !o.getPhysicType().equals(PhysicType.NONE) && e.canCollideWith(o)) {
                 collisionCounter++;
                 handleCollision(e, o);
             }
         });
+        releaseContacts(e);
+    }
+
+    /**
+     * Remove the contacts of the {@link Entity} which have not been detected again by the last collision detection,
+     * raising {@link Behavior#onCollisionExit(CollisionEvent)}.
+     *
+     * @param e the Entity to be processed.
+     */
+    private void releaseContacts(Entity e) {
+        for (int i = e.collisions.size() - 1; i >= 0; i--) {
+            CollisionEvent ce = e.collisions.get(i);
+            if (ce.stamp != e.contactStamp) {
+                e.collisions.remove(i);
+                contacts.remove(ce);
+                e.getBehaviors().forEach(b -> b.onCollisionExit(ce));
+                contacts.release(ce);
+            }
+        }
     }
 
     /**
@@ -1703,11 +6641,67 @@ public class KarmaPlatform extends JPanel implements KeyListener {
      */
     public synchronized void cullingProcess(KarmaPlatform game, double d) {
         spacePartition.clear();
+        tileMaps.clear();
         sceneManager.getCurrent().getEntities().stream()
             .filter(Entity::isActive)
             .forEach(e -> {
-                spacePartition.insert(e);
+                if (e instanceof TileMap tm) {
+                    tileMaps.add(tm);
+                } else {
+                    spacePartition.insert(e);
+                }
             });
+        // load the TileMap's chunks around the camera viewport.
+        if (!tileMaps.isEmpty()) {
+            Camera cam = sceneManager.getCurrent().getCamera();
+            Rectangle2D area = Optional.ofNullable(cam).isPresent() && Optional.ofNullable(cam.getViewport()).isPresent()
+                ? cam.getViewport()
+                : world.getPlayArea();
+            tileMaps.forEach(tm -> tm.updateChunks(area));
+        }
+    }
+
+    /**
+     * Keep the {@link PhysicType#DYNAMIC} {@link Entity} out of the solid tiles of the active {@link TileMap}s.
+     * Only the tiles overlapped by the {@link Entity}'s bounding box are tested.
+     *
+     * @param e the Entity to be processed
+     */
+    private void applyTileMapCollision(Entity e) {
+        if (tileMaps.isEmpty() || !e.getPhysicType().equals(PhysicType.DYNAMIC)) {
+            return;
+        }
+        double elasticity = Math.min(e.getMaterial().elasticity, 1.0);
+        for (TileMap tm : tileMaps) {
+            for (int ty = tm.toTileY(e.getBox().getMinY()); ty <= tm.toTileY(e.getBox().getMaxY() - 1); ty++) {
+                for (int tx = tm.toTileX(e.getBox().getMinX()); tx <= tm.toTileX(e.getBox().getMaxX() - 1); tx++) {
+                    if (!tm.isSolid(tx, ty)) {
+                        continue;
+                    }
+                    double tileX = tm.position.x + (double) tx * tm.getTileWidth();
+                    double tileY = tm.position.y + (double) ty * tm.getTileHeight();
+                    double overlapX = Math.min(e.getBox().getMaxX(), tileX + tm.getTileWidth()) - Math.max(e.getBox().getMinX(), tileX);
+                    double overlapY = Math.min(e.getBox().getMaxY(), tileY + tm.getTileHeight()) - Math.max(e.getBox().getMinY(), tileY);
+                    if (overlapX <= 0 || overlapY <= 0) {
+                        continue;
+                    }
+                    // push out along the smallest overlap, and only bounce back a velocity heading into the tile.
+                    if (overlapX < overlapY) {
+                        double push = e.getBox().getCenterX() < tileX + tm.getTileWidth() * 0.5 ? -overlapX : overlapX;
+                        e.position.x += push;
+                        if (e.velocity.x * push < 0) {
+                            e.velocity.x = e.velocity.x * -elasticity;
+                        }
+                    } else {
+                        double push = e.getBox().getCenterY() < tileY + tm.getTileHeight() * 0.5 ? -overlapY : overlapY;
+                        e.position.y += push;
+                        if (e.velocity.y * push < 0) {
+                            e.velocity.y = e.velocity.y * -elasticity;
+                        }
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -1718,9 +6712,19 @@ public class KarmaPlatform extends JPanel implements KeyListener {
      * @param o the {@link Entity}'s colliding with.
      */
     private void handleCollision(Entity e, Entity o) {
-        if (e.box.intersects(o.box)) {
+        if (e.getBox().intersects(o.getBox())) {
+            long key = ContactCache.pairId(e, o);
+            CollisionEvent ce = contacts.find(key);
+            boolean entered = ce == null;
+            if (entered) {
+                ce = contacts.add(key, e, o);
+                e.register(ce);
+            } else if (ce.stamp == e.contactStamp) {
+                // this collision has already been processed by this detection.
+                return;
+            }
+            ce.stamp = e.contactStamp;
             // Detect Collision Side
-            CollisionEvent ce = new CollisionEvent(e, o);
             ce.setNormal(calculateCollisionNormal(e, o));
             ce.setPenetrationDepth(calculatePenetrationDepth(e, o, ce.getNormal()));
             if (Math.abs(ce.getNormal().y) > Math.abs(ce.getNormal().x)) {
@@ -1736,18 +6740,23 @@ public class KarmaPlatform extends JPanel implements KeyListener {
                     ce.setCollisionSide(CollisionSide.TOP);
                 }
             }
-            // if this collision does not already exist, process it.
-            if (!e.getCollisions().contains(ce)) {
-                e.getBehaviors().forEach(b -> b.onCollision(ce));
-                resolveCollision(ce);
-                e.register(ce);
-                o.getChild().forEach(c -> handleCollision(e, c));
-                e.updateBox();
-                if (isDebugGreaterThan(4) && debugFilter.contains(e.name) || debugFilter.isEmpty()) {
-                    debug("handle collision on %s between '%s' and '%s'", ce.side, ce.getSrc(), ce.getDst());
+            for (Behavior<Entity> b : e.getBehaviors()) {
+                if (entered) {
+                    b.onCollisionEnter(ce);
+                } else {
+                    b.onCollisionStay(ce);
                 }
+                b.onCollision(ce);
+            }
+            if (solver.getIterations() > 0) {
+                solver.add(ce, contacts);
+            } else {
+                resolveCollision(ce);
+            }
+            o.getChild().stream().filter(e::canCollideWith).forEach(c -> handleCollision(e, c));
+            if (isDebugGreaterThan(4) && debugFilter.contains(e.name) || debugFilter.isEmpty()) {
+                debug("handle collision on %s between '%s' and '%s'", ce.side, ce.getSrc(), ce.getDst());
             }
-
         }
     }
 
@@ -1807,13 +6816,11 @@ public class KarmaPlatform extends JPanel implements KeyListener {
                 // Dynamic vs Static: Correction basée sur la plus grande composante de la
                 // vitesse de l'entité dynamique
                 applyPositionCorrection(ce.getSrc(), ce.getDst(), velocity1, normal);
-                ce.getSrc().updateBox();
                 ce.getSrc().getVelocity().y = ce.getDst().getVelocity().y * -ce.getDst().getMaterial().elasticity;
             } else if (isEntity1Static && isEntity2Dynamic) {
                 // Static vs Dynamic: Correction basée sur la plus grande composante de la
                 // vitesse de l'entité dynamique
                 applyPositionCorrection(ce.getDst(), ce.getSrc(), velocity2, normal);
-                ce.getDst().updateBox();
                 ce.getSrc().getVelocity().y = ce.getDst().getVelocity().y * -ce.getDst().getMaterial().elasticity;
             } else if (isEntity1Dynamic && isEntity2Dynamic) {
                 // Dynamic vs Dynamic: Correction partagée
@@ -1822,8 +6829,6 @@ public class KarmaPlatform extends JPanel implements KeyListener {
                     ce.getSrc().getPosition().add(normal.multiply(penetrationDepth * (ce.getDst().getMass() / totalMass))));
                 ce.getDst().setPosition(ce.getDst().getPosition()
                     .subtract(normal.multiply(penetrationDepth * (ce.getSrc().getMass() / totalMass))));
-                ce.getSrc().updateBox();
-                ce.getDst().updateBox();
             }
         }
     }
@@ -1842,30 +6847,29 @@ public class KarmaPlatform extends JPanel implements KeyListener {
                                          Vector2D normal) {
         double sideThreshold = 4;
         // Calculer la profondeur de la pénétration
-        double overlapX = Math.min(dynEntity.box.getMaxX(), statEntity.box.getMaxX())
-            - Math.max(dynEntity.box.getMinX(), statEntity.box.getMinX());
-        double overlapY = Math.min(dynEntity.box.getMaxY(), statEntity.box.getMaxY())
-            - Math.max(dynEntity.box.getMinY(), statEntity.box.getMinY());
+        double overlapX = Math.min(dynEntity.getBox().getMaxX(), statEntity.getBox().getMaxX())
+            - Math.max(dynEntity.getBox().getMinX(), statEntity.getBox().getMinX());
+        double overlapY = Math.min(dynEntity.getBox().getMaxY(), statEntity.getBox().getMaxY())
+            - Math.max(dynEntity.getBox().getMinY(), statEntity.getBox().getMinY());
 
         // Calculer la direction de la collision
-        double velocityX = statEntity.box.getCenterX() - dynEntity.box.getCenterX();
-        double velocityY = statEntity.box.getCenterY() - dynEntity.box.getCenterY();
+        double velocityX = statEntity.getBox().getCenterX() - dynEntity.getBox().getCenterX();
+        double velocityY = statEntity.getBox().getCenterY() - dynEntity.getBox().getCenterY();
 
         // Réajuster les positions des rectangles pour les séparer
         if (Math.abs(overlapX) < Math.abs(overlapY)) {
             if (velocityX > 0) {
-                dynEntity.getPosition().x = (statEntity.box.getX() - dynEntity.box.getWidth());
+                dynEntity.getPosition().x = (statEntity.getBox().getX() - dynEntity.getBox().getWidth());
             } else {
-                dynEntity.getPosition().x = (statEntity.box.getX() + statEntity.box.getWidth());
+                dynEntity.getPosition().x = (statEntity.getBox().getX() + statEntity.getBox().getWidth());
             }
         } else {
             if (velocityY > 0) {
-                dynEntity.getPosition().y = (statEntity.box.getY() - dynEntity.box.getHeight());
+                dynEntity.getPosition().y = (statEntity.getBox().getY() - dynEntity.getBox().getHeight());
             } else {
-                dynEntity.getPosition().y = (statEntity.box.getY() + statEntity.box.getHeight());
+                dynEntity.getPosition().y = (statEntity.getBox().getY() + statEntity.getBox().getHeight());
             }
         }
-        dynEntity.updateBox();
     }
 
     /**
@@ -1928,6 +6932,12 @@ public class KarmaPlatform extends JPanel implements KeyListener {
 
     /*---- Rendering process ----*/
 
+    /**
+     * Drawing order: by priority, then by {@link SpriteAtlas} page to batch the blits from the same image.
+     */
+    private static final Comparator<Entity> DRAW_ORDER = Comparator.comparingInt(Entity::getPriority)
+        .thenComparingInt(e -> e.sprite != null ? e.sprite.pageIndex : -1);
+
     /**
      * Drawing all the game graphics onto the screen buffer,
      * and then copy this buffer to the window.
@@ -1938,35 +6948,77 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-        // Clear display area
-        g.setColor(Color.BLACK);
-        g.fillRect(0, 0, buffer.getWidth(), buffer.getHeight());
         Scene scene = sceneManager.getCurrent();
         Camera cam = sceneManager.getCurrent().getCamera();
 
-        // Draw things
         List<Entity> entities = new ArrayList<>();
         entities.addAll(scene.getEntities());
         if (!getWorld().getDisturbances().isEmpty()) {
             entities.addAll(getWorld().getDisturbances());
         }
-        entities.stream()
+        List<Entity> visible = entities.stream()
             .filter(Entity::isActive)
-            .sorted(Comparator.comparingInt(Entity::getPriority))
-            .forEach(e -> {
-                if (Optional.ofNullable(cam).isPresent() && !e.isStatic()) {
-                    g.translate(
-                        -cam.position.getX(),
-                        -cam.position.getY());
-                }
-                draw(g, e);
-                e.getChild().forEach(c -> draw(g, c));
-                if (Optional.ofNullable(cam).isPresent() && !e.isStatic()) {
-                    g.translate(
-                        cam.position.getX(),
-                        cam.position.getY());
+            .sorted(DRAW_ORDER)
+            .toList();
+
+        // only clear and draw again the dirty region, if any.
+        Rectangle region = null;
+        if (dirtyRendering) {
+            if (isDebugGreaterThan(1) || hasParticles()) {
+                // debug information and particles are drawn out of the entities area.
+                dirtyTracker.markAll();
+            }
+            // the texts must be sized before their area is tracked.
+            for (Entity e : visible) {
+                if (e instanceof TextObject to) {
+                    prepareText(to);
                 }
-            });
+                for (Entity c : e.getChild()) {
+                    if (c instanceof TextObject to) {
+                        prepareText(to);
+                    }
+                }
+            }
+            region = dirtyTracker.update(scene, visible, tick, buffer.getWidth(), buffer.getHeight());
+            if (Optional.ofNullable(region).isEmpty()) {
+                g.dispose();
+                present(stats, entities);
+                return;
+            }
+            g.setClip(region);
+        }
+        Rectangle clip = region;
+
+        // Clear display area
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, buffer.getWidth(), buffer.getHeight());
+
+        // Draw things
+        visible.forEach(e -> {
+            if (Optional.ofNullable(clip).isPresent() && e.getChild().isEmpty()
+                && !DirtyRegionTracker.intersects(e, clip)) {
+                return;
+            }
+            if (Optional.ofNullable(cam).isPresent() && !e.isStatic()) {
+                g.translate(
+                    -cam.position.getX(),
+                    -cam.position.getY());
+            }
+            draw(g, e);
+            e.getChild().forEach(c -> draw(g, c));
+            if (Optional.ofNullable(cam).isPresent() && !e.isStatic()) {
+                g.translate(
+                    cam.position.getX(),
+                    cam.position.getY());
+            }
+        });
+        if (hasParticles()) {
+            double camX = Optional.ofNullable(cam).isPresent() ? cam.position.getX() : 0;
+            double camY = Optional.ofNullable(cam).isPresent() ? cam.position.getY() : 0;
+            g.translate(-camX, -camY);
+            getWorld().getParticleSystems().forEach(ps -> ps.draw(g));
+            g.translate(camX, camY);
+        }
         sceneManager.getCurrent().draw(this, g);
 
         if (isDebugGreaterThan(3)) {
@@ -1984,7 +7036,25 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         }
         // free API
         g.dispose();
+        present(stats, entities);
+    }
 
+    private boolean hasParticles() {
+        for (ParticleSystem ps : getWorld().getParticleSystems()) {
+            if (ps.getCount() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy the rendering buffer to the window, with the debug information line.
+     *
+     * @param stats    the statistics map.
+     * @param entities the drawn entities.
+     */
+    private void present(Map<String, Object> stats, Collection<Entity> entities) {
         // Copy buffer to window.
         BufferStrategy bs = frame.getBufferStrategy();
         // configure renderer for antialiasing.
@@ -2006,6 +7076,305 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         gs.dispose();
     }
 
+    /**
+     * Publish the render state of the visible entities to the render thread (threaded rendering mode).
+     * This is called by the game thread at the end of a tick: nothing here is drawn.
+     *
+     * @param stats the statistics map.
+     */
+    private void publishRenderFrame(Map<String, Object> stats) {
+        fillRenderFrame(renderFrames.getWriteFrame(), stats);
+        renderFrames.publish();
+    }
+
+    /**
+     * Copy the render state of the visible entities of the current {@link Scene} into a {@link RenderFrame}.
+     *
+     * @param f     the {@link RenderFrame} to be filled.
+     * @param stats the statistics map.
+     */
+    private void fillRenderFrame(RenderFrame f, Map<String, Object> stats) {
+        f.clear();
+        Scene scene = sceneManager.getCurrent();
+        f.scene = scene;
+        scene.capture(f.sceneState);
+        Camera cam = scene.getCamera();
+        f.hasCamera = Optional.ofNullable(cam).isPresent();
+        if (f.hasCamera) {
+            f.camX = cam.position.getX();
+            f.camY = cam.position.getY();
+        }
+        f.entities.addAll(scene.getEntities());
+        if (!getWorld().getDisturbances().isEmpty()) {
+            f.entities.addAll(getWorld().getDisturbances());
+        }
+        f.entities.sort(DRAW_ORDER);
+        for (Entity e : f.entities) {
+            if (e.isActive()) {
+                capture(f.next(), e, e.isStatic());
+                for (Entity c : e.getChild()) {
+                    capture(f.next(), c, e.isStatic());
+                }
+            }
+        }
+        for (ParticleSystem ps : getWorld().getParticleSystems()) {
+            ps.capture(f.nextParticles());
+        }
+        f.stats.putAll(stats);
+    }
+
+    /**
+     * Copy the render state of an {@link Entity}. Only the {@link Entity} and {@link TextObject} drawn
+     * by the engine renderers are detached from the live {@link Entity}.
+     */
+    private void capture(RenderItem it, Entity e, boolean isStatic) {
+        it.entity = e;
+        it.renderer = renderers.getRenderer(renderers.resolve(e));
+        it.isStatic = isStatic;
+        it.x = e.position.x;
+        it.y = e.position.y;
+        it.w = e.w;
+        it.h = e.h;
+        it.detached = false;
+        it.shape = false;
+        it.text = null;
+        if (it.renderer == entityRenderer) {
+            it.detached = true;
+            it.shape = true;
+            it.type = e.type;
+            it.flipped = e.velocity.x < 0;
+            it.fgColor = e.fgColor;
+            it.bgColor = e.bgColor;
+            it.image = e.image;
+            it.sprite = e.animation != null ? e.animation.frameAt(e, tick) : e.sprite;
+        } else if (it.renderer == (Renderer<?>) textRenderer) {
+            TextObject to = (TextObject) e;
+            // rasterize the text on the game thread, to size the TextObject as the single-threaded path does.
+            prepareText(to);
+            it.detached = true;
+            it.text = to.getText();
+            it.rendered = to.rendered;
+            it.w = to.w;
+            it.h = to.h;
+        } else if (it.renderer == (Renderer<?>) gridRenderer) {
+            GridObject go = (GridObject) e;
+            it.detached = true;
+            it.fgColor = go.getForegroundColor();
+            it.stepW = go.stepW;
+            it.stepH = go.stepH;
+            it.strokeSize = go.strokeSize;
+            it.areaW = world.getPlayArea().getWidth();
+            it.areaH = world.getPlayArea().getHeight();
+        } else if (it.renderer == (Renderer<?>) tileMapRenderer) {
+            if (Optional.ofNullable(it.tiles).isEmpty()) {
+                it.tiles = new TileMap.Snapshot();
+            }
+            it.detached = true;
+            ((TileMap) e).capture(it.tiles);
+        } else if (it.renderer == (Renderer<?>) disturbanceRenderer) {
+            it.detached = true;
+            it.bgColor = getDisturbanceColor(e);
+        }
+        // the behaviors draw with the live entity: not on the render thread.
+        it.drawBehaviors = !threadedRendering && !e.getBehaviors().isEmpty();
+        it.debug = isDebugGreaterThan(1);
+        if (it.debug) {
+            captureDebug(it, e);
+        }
+    }
+
+    /**
+     * Copy the debug information of an {@link Entity}: its label, box, velocity and collision normals.
+     */
+    private static void captureDebug(RenderItem it, Entity e) {
+        it.debugLabel = e.getDebugLabel();
+        it.x = e.position.x;
+        it.y = e.position.y;
+        it.w = e.w;
+        it.h = e.h;
+        it.box.setRect(e.getBox());
+        it.vx = e.velocity.x;
+        it.vy = e.velocity.y;
+        it.normalCount = 0;
+        if (isDebugGreaterThan(3)) {
+            Collection<CollisionEvent> collisions = e.getCollisions();
+            if (it.normals.length < collisions.size() * 2) {
+                it.normals = new double[collisions.size() * 4];
+            }
+            for (CollisionEvent ce : collisions) {
+                it.normals[it.normalCount * 2] = ce.getSrc().getPosition().x + ce.getNormal().x * 10.0 + e.w * 0.5;
+                it.normals[it.normalCount * 2 + 1] = ce.getSrc().getPosition().y + ce.getNormal().y * 10.0 + e.h * 0.5;
+                it.normalCount++;
+            }
+        }
+    }
+
+    /**
+     * The render thread loop, drawing the latest published {@link RenderFrame}.
+     * A failing frame is logged and skipped, not to stop the rendering.
+     */
+    private void renderLoop() {
+        while (rendering) {
+            RenderFrame f = renderFrames.acquire();
+            if (Optional.ofNullable(f).isPresent()) {
+                try {
+                    drawFrame(f);
+                } catch (RuntimeException e) {
+                    error("Unable to draw the frame: %s", e);
+                }
+            } else {
+                LockSupport.parkNanos(500_000);
+            }
+        }
+    }
+
+    /**
+     * Draw a {@link RenderFrame} onto the screen buffer, then to the window (render thread).
+     * The {@link Scene} is drawn from its captured state with {@link Scene#draw(KarmaPlatform, Graphics2D, Map)}.
+     * Only the custom {@link Renderer}s are still called with the live entities, and must only read them.
+     * {@link Behavior#onDraw(KarmaPlatform, Graphics2D, Object)} is only called when the frame is drawn
+     * on the game thread.
+     *
+     * @param f the {@link RenderFrame} to draw.
+     */
+    private void drawFrame(RenderFrame f) {
+        renderFrame(f);
+        present(f.stats, f.entities);
+    }
+
+    /**
+     * Draw the current {@link Scene} into the rendering buffer through the {@link RenderFrame} path
+     * (band rendering included), without presenting it to the window, e.g. to compare the rendering modes.
+     *
+     * @return the rendering buffer.
+     */
+    public BufferedImage renderFrame() {
+        if (Optional.ofNullable(buffer).isEmpty()) {
+            buffer = new BufferedImage(resSize.width, resSize.height, BufferedImage.TYPE_4BYTE_ABGR);
+        }
+        fillRenderFrame(bandFrame, new HashMap<>());
+        renderFrame(bandFrame);
+        return buffer;
+    }
+
+    /**
+     * Draw a {@link RenderFrame} onto the rendering buffer.
+     *
+     * @param f the {@link RenderFrame} to draw.
+     */
+    private void renderFrame(RenderFrame f) {
+        Graphics2D g = buffer.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, buffer.getWidth(), buffer.getHeight());
+        for (int i = 0; i < f.size(); i++) {
+            RenderItem it = f.get(i);
+            if (renderBands > 1 && isBandDrawable(it)) {
+                // draw the run of shapes and sprites band by band, in parallel.
+                int end = i + 1;
+                while (end < f.size() && isBandDrawable(f.get(end))) {
+                    end++;
+                }
+                if (end - i >= MIN_BAND_ITEMS) {
+                    drawBands(f, i, end);
+                    i = end - 1;
+                    continue;
+                }
+            }
+            boolean moved = f.hasCamera && !it.isStatic;
+            if (moved) {
+                g.translate(-f.camX, -f.camY);
+            }
+            if (it.shape) {
+                drawShape(g, it.type, it.x, it.y, it.w, it.h, it.fgColor, it.bgColor, it.sprite, it.image, it.flipped);
+            } else if (it.detached && Optional.ofNullable(it.text).isPresent()) {
+                g.drawImage(it.rendered.getImage(), (int) it.x - 1, (int) it.y - it.rendered.getAscent() - 1, null);
+            } else if (it.detached && it.renderer == (Renderer<?>) gridRenderer) {
+                drawGrid(g, it.fgColor, it.strokeSize, it.stepW, it.stepH, it.areaW, it.areaH);
+            } else if (it.detached && it.renderer == (Renderer<?>) tileMapRenderer) {
+                it.tiles.draw(g);
+            } else if (it.detached && it.renderer == (Renderer<?>) disturbanceRenderer) {
+                fillDisturbance(g, it.bgColor, it.x, it.y, it.w, it.h);
+            } else if (Optional.ofNullable(it.renderer).isPresent()) {
+                it.renderer.draw(this, g, it.entity);
+            }
+            if (it.drawBehaviors) {
+                for (Behavior<Entity> b : it.entity.getBehaviors()) {
+                    b.onDraw(this, g, it.entity);
+                }
+            }
+            if (it.debug) {
+                drawDebug(g, it);
+            }
+            if (moved) {
+                g.translate(f.camX, f.camY);
+            }
+        }
+        if (f.particleCount > 0) {
+            double camX = f.hasCamera ? f.camX : 0;
+            double camY = f.hasCamera ? f.camY : 0;
+            g.translate(-camX, -camY);
+            for (int i = 0; i < f.particleCount; i++) {
+                f.particles.get(i).draw(g);
+            }
+            g.translate(camX, camY);
+        }
+        f.scene.draw(this, g, f.sceneState);
+        g.dispose();
+    }
+
+    /**
+     * A {@link RenderItem} can be drawn in parallel if it is fully detached from its live {@link Entity}:
+     * a shape or a sprite, without any {@link Behavior} drawing nor debug information.
+     */
+    private static boolean isBandDrawable(RenderItem it) {
+        return it.shape && !it.drawBehaviors && !it.debug;
+    }
+
+    /**
+     * Draw a run of {@link RenderItem}s, splitting the rendering buffer into horizontal bands, each one drawn
+     * by a task of the render pool through its own clipped {@link Graphics2D}. Bands write disjoint pixels of the
+     * same buffer, so no composition is needed.
+     *
+     * @param f    the {@link RenderFrame} to draw.
+     * @param from index of the first item to draw.
+     * @param to   index after the last item to draw.
+     */
+    private void drawBands(RenderFrame f, int from, int to) {
+        if (Optional.ofNullable(renderPool).isEmpty()) {
+            renderPool = new ForkJoinPool(renderBands);
+        }
+        int bandHeight = (buffer.getHeight() + renderBands - 1) / renderBands;
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[renderBands];
+        for (int b = 0; b < renderBands; b++) {
+            int top = b * bandHeight;
+            tasks[b] = renderPool.submit(() -> drawBand(f, from, to, top, bandHeight));
+        }
+        for (ForkJoinTask<?> t : tasks) {
+            t.join();
+        }
+    }
+
+    private void drawBand(RenderFrame f, int from, int to, int top, int height) {
+        Graphics2D g = buffer.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.clipRect(0, top, buffer.getWidth(), height);
+        for (int i = from; i < to; i++) {
+            RenderItem it = f.get(i);
+            double dy = f.hasCamera && !it.isStatic ? f.camY : 0;
+            double dx = f.hasCamera && !it.isStatic ? f.camX : 0;
+            // skip the items out of this band (with a margin for antialiasing and strokes).
+            if (it.y - dy + it.h + 2 < top || it.y - dy - 2 > top + height) {
+                continue;
+            }
+            g.translate(-dx, -dy);
+            drawShape(g, it.type, it.x, it.y, it.w, it.h, it.fgColor, it.bgColor, it.sprite, it.image, it.flipped);
+            g.translate(dx, dy);
+        }
+        g.dispose();
+    }
+
     /**
      * Display the debug information line onto the window bottom.
      *
@@ -2022,7 +7391,7 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         long countNoneEntities = entities.stream()
             .filter(e -> e.getPhysicType().equals(PhysicType.NONE)).count();
         long collidingEventsCount = collisionCounter;
-        gs.setColor(new Color(0.6f, 0.3f, 0.1f, 0.50f));
+        gs.setColor(RenderCache.color(0.6f, 0.3f, 0.1f, 0.50f));
         gs.fillRect(8, winSize.height + 8, winSize.width, 32);
         gs.setColor(Color.ORANGE);
         gs.drawString(
@@ -2044,20 +7413,7 @@ public class KarmaPlatform extends JPanel implements KeyListener {
      * @param e the Entity to be drawn
      */
     private void draw(Graphics2D g, Entity e) {
-        switch (e.getClass().getSimpleName()) {
-            case "TextObject" -> {
-                drawTextObject(g, (TextObject) e);
-            }
-            case "Entity" -> {
-                drawEntity(g, e);
-            }
-            case "GridObject" -> {
-                drawGridObject(g, (GridObject) e);
-            }
-            case "Disturbance" -> {
-                drawDisturbance(g, (Disturbance) e);
-            }
-        }
+        renderers.draw(this, g, e);
         if (!e.getBehaviors().isEmpty()) {
             e.getBehaviors().forEach(b -> {
                 b.onDraw(this, g, e);
@@ -2065,39 +7421,39 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         }
         // drawing some debug information.
         if (isDebugGreaterThan(1)) {
-            drawDebugEntity(g, e);
+            captureDebug(debugItem, e);
+            drawDebug(g, debugItem);
         }
     }
 
-    private static void drawDebugEntity(Graphics2D g, Entity e) {
-        g.setColor(Color.ORANGE);
-        g.setFont(g.getFont().deriveFont(9.0f));
-        g.drawString("#" + e.id + "=" + e.name, (int) e.getPosition().getX() - 2, (int) e.getPosition().getY() - 2);
-        g.setStroke(new BasicStroke(0.5f));
+    /**
+     * Draw the debug information captured into a {@link RenderItem}.
+     *
+     * @param g  the {@link Graphics2D} API instance to use.
+     * @param it the {@link RenderItem} with the captured debug information.
+     */
+    private static void drawDebug(Graphics2D g, RenderItem it) {
+        RenderCache.setColor(g, Color.ORANGE);
+        RenderCache.setFont(g, RenderCache.font(g.getFont(), 9.0f));
+        g.drawString(it.debugLabel, (int) it.x - 2, (int) it.y - 2);
+        RenderCache.setStroke(g, 0.5f);
         if (isDebugGreaterThan(2)) {
-            g.draw(e.box);
+            g.draw(it.box);
         }
         // draw Velocity
-        g.setColor(Color.CYAN);
-        Vector2D pos1 = e.getPosition().add(e.getVelocity().multiply(100.0).add(new Vector2D(e.w, e.h).multiply(0.5)));
-        g.drawLine(
-                (int) (e.getPosition().x + e.w * 0.5), (int) (e.getPosition().y + e.h * 0.5),
-                (int) pos1.getX(), (int) pos1.getY());
-        if (isDebugGreaterThan(3)) {
+        RenderCache.setColor(g, Color.CYAN);
+        double cx = it.x + it.w * 0.5;
+        double cy = it.y + it.h * 0.5;
+        g.drawLine((int) cx, (int) cy,
+            (int) (cx + it.vx * 100.0), (int) (cy + it.vy * 100.0));
+        if (it.normalCount > 0) {
             // draw collision normals
-            g.setColor(Color.WHITE);
-            e.getCollisions().forEach(ce -> {
-                Vector2D pos2 = ce.getSrc().getPosition()
-                        .add(ce.getNormal()
-                                .multiply(10.0)
-                                .add(new Vector2D(e.w, e.h)
-                                        .multiply(0.5)));
-                g.drawLine(
-                        (int) (e.getPosition().x + e.w * 0.5), (int) (e.getPosition().y + e.h * 0.5),
-                        (int) pos2.getX(), (int) pos2.getY());
-            });
+            RenderCache.setColor(g, Color.WHITE);
+            for (int i = 0; i < it.normalCount; i++) {
+                g.drawLine((int) cx, (int) cy, (int) it.normals[i * 2], (int) it.normals[i * 2 + 1]);
+            }
         }
-        g.setStroke(new BasicStroke(1.0f));
+        RenderCache.setStroke(g, 1.0f);
     }
 
     /**
@@ -2107,13 +7463,26 @@ public class KarmaPlatform extends JPanel implements KeyListener {
      * @param e the Disturbance entity to be drawn.
      */
     private void drawDisturbance(Graphics2D g, Disturbance e) {
-        if (isDebugGreaterThan(3)) {
-            if (Optional.ofNullable(e.getBackgroundColor()).isPresent()) {
-                g.setColor(e.getBackgroundColor());
-            } else {
-                g.setColor(new Color(0.0f, 0.0f, 0.6f, 0.3f));
-            }
-            g.fillRect((int) e.getPosition().getX(), (int) e.getPosition().getY(), (int) e.w, (int) e.h);
+        fillDisturbance(g, getDisturbanceColor(e), e.getPosition().getX(), e.getPosition().getY(), e.w, e.h);
+    }
+
+    /**
+     * @param e the Disturbance entity to be drawn.
+     * @return the color of the Disturbance area, or null if it is not drawn at this debug level.
+     */
+    private static Color getDisturbanceColor(Entity e) {
+        if (!isDebugGreaterThan(3)) {
+            return null;
+        }
+        return Optional.ofNullable(e.getBackgroundColor()).isPresent()
+            ? e.getBackgroundColor()
+            : RenderCache.color(0.0f, 0.0f, 0.6f, 0.3f);
+    }
+
+    private static void fillDisturbance(Graphics2D g, Color c, double x, double y, double w, double h) {
+        if (Optional.ofNullable(c).isPresent()) {
+            RenderCache.setColor(g, c);
+            g.fillRect((int) x, (int) y, (int) w, (int) h);
         }
     }
 
@@ -2124,63 +7493,119 @@ public class KarmaPlatform extends JPanel implements KeyListener {
      * @param go the {@link GridObject} to draw
      */
     private void drawGridObject(Graphics2D g, GridObject go) {
+        drawGrid(g, go.getForegroundColor(), go.strokeSize, go.stepW, go.stepH,
+            world.getPlayArea().getWidth(), world.getPlayArea().getHeight());
+    }
+
+    private static void drawGrid(Graphics2D g, Color c, float strokeSize, int stepW, int stepH, double areaW, double areaH) {
         // draw temporary background
-        g.setColor(go.getForegroundColor());
-        g.setStroke(new BasicStroke(go.strokeSize));
-        for (double dx = 0; dx < world.getPlayArea().getWidth(); dx += go.stepW) {
-            g.drawRect((int) dx, 0, 16, (int) world.getPlayArea().getHeight());
+        RenderCache.setColor(g, c);
+        RenderCache.setStroke(g, strokeSize);
+        for (double dx = 0; dx < areaW; dx += stepW) {
+            g.drawRect((int) dx, 0, 16, (int) areaH);
         }
-        for (double dy = 0; dy < world.getPlayArea().getHeight(); dy += go.stepH) {
-            g.drawRect(0, (int) dy, (int) world.getPlayArea().getWidth(), 16);
+        for (double dy = 0; dy < areaH; dy += stepH) {
+            g.drawRect(0, (int) dy, (int) areaW, 16);
         }
-        g.setStroke(new BasicStroke(1.0f));
+        RenderCache.setStroke(g, 1.0f);
     }
 
     /**
-     * Draw a TextObject instance onto screen buffer.
+     * Draw the loaded chunks of a TileMap instance onto screen buffer.
      *
      * @param g  the {@link Graphics2D} API instance to use
-     * @param to the {@link TextObject} to draw
+     * @param tm the {@link TileMap} to draw
      */
-    private static void drawTextObject(Graphics2D g, TextObject to) {
-        g.setFont(to.getFont());
-        g.setColor(Color.BLACK);
-        for (int dx = -1; dx < 2; dx++) {
-            for (int dy = -1; dy < 2; dy++) {
-                g.drawString(to.getText(), (int) to.position.x + dx, (int) to.position.y + dy);
+    private static void drawTileMap(Graphics2D g, TileMap tm) {
+        Rectangle lc = tm.getLoadedChunks();
+        int cs = tm.getChunkSize();
+        int tw = tm.getTileWidth();
+        int th = tm.getTileHeight();
+        int maxTx = Math.min((lc.x + lc.width) * cs, tm.getMapWidth());
+        int maxTy = Math.min((lc.y + lc.height) * cs, tm.getMapHeight());
+        for (int ty = lc.y * cs; ty < maxTy; ty++) {
+            for (int tx = lc.x * cs; tx < maxTx; tx++) {
+                int id = tm.getTile(tx, ty);
+                if (id != 0) {
+                    Color c = tm.tileColors[Math.min(id, tm.tileColors.length - 1)];
+                    if (Optional.ofNullable(c).isPresent()) {
+                        RenderCache.setColor(g, c);
+                        g.fillRect((int) tm.position.x + tx * tw, (int) tm.position.y + ty * th, tw, th);
+                    }
+                }
             }
         }
-        g.setColor(to.getTextColor());
-        g.drawString(to.getText(), (int) to.position.x, (int) to.position.y);
-        FontMetrics fm = g.getFontMetrics();
-        to.w = fm.stringWidth(to.getText());
-        to.h = fm.getHeight();
-        to.updateBox(to.getPosition().x, to.getPosition().y - to.h, to.w, to.h);
+    }
+
+    /**
+     * Format the text of a {@link TextObject} if its value changed, rasterize it through the {@link TextCache}
+     * only when it changed, and update the {@link TextObject} size.
+     *
+     * @param to the {@link TextObject} to prepare.
+     */
+    private void prepareText(TextObject to) {
+        // format the text first: a new value resets the rasterized text.
+        String text = to.getText();
+        if (to.rendered == null) {
+            Font font = Optional.ofNullable(to.getFont()).orElse(textCache.getDefaultFont());
+            to.rendered = textCache.get(text, font, to.getTextColor(), Color.BLACK);
+            to.w = to.rendered.getWidth();
+            to.h = to.rendered.getHeight();
+        }
+    }
+
+    /**
+     * Draw a TextObject instance onto screen buffer.
+     *
+     * @param g  the {@link Graphics2D} API instance to use
+     * @param to the {@link TextObject} to draw
+     */
+    private void drawTextObject(Graphics2D g, TextObject to) {
+        prepareText(to);
+        g.drawImage(to.rendered.getImage(),
+            (int) to.position.x - 1, (int) to.position.y - to.rendered.getAscent() - 1, null);
     }
 
     /**
      * Draw a default Entity onto the screen buffer.
      *
-     * @param g the {@link Graphics2D} API instance to use
-     * @param e the {@link Entity} to draw
+     * @param g    the {@link Graphics2D} API instance to use
+     * @param e    the {@link Entity} to draw
+     * @param tick the current tick, to compute the animation frames.
+     */
+    private static void drawEntity(Graphics2D g, Entity e, long tick) {
+        if (e.animation != null) {
+            e.sprite = e.animation.frameAt(e, tick);
+        }
+        drawShape(g, e.type, e.position.x, e.position.y, e.w, e.h, e.fgColor, e.bgColor, e.sprite, e.image, e.velocity.x < 0);
+    }
+
+    /**
+     * Draw the shape, sprite or image of a default Entity from its render attributes.
      */
-    private static void drawEntity(Graphics2D g, Entity e) {
-        switch (e.type) {
+    private static void drawShape(Graphics2D g, EntityType type, double x, double y, double w, double h,
+                                  Color fgColor, Color bgColor, SpriteAtlas.Sprite sprite, BufferedImage image, boolean flipped) {
+        switch (type) {
             case RECTANGLE -> {
-                g.setColor(e.getBackgroundColor());
-                g.fillRect((int) e.position.x, (int) e.position.y, (int) e.w, (int) e.h);
-                g.setColor(e.getForegroundColor());
-                g.drawRect((int) e.position.x, (int) e.position.y, (int) e.w, (int) e.h);
+                RenderCache.setColor(g, bgColor);
+                g.fillRect((int) x, (int) y, (int) w, (int) h);
+                RenderCache.setColor(g, fgColor);
+                g.drawRect((int) x, (int) y, (int) w, (int) h);
             }
             case ELLIPSE -> {
-                g.setColor(e.getBackgroundColor());
-                g.fillOval((int) e.position.x, (int) e.position.y, (int) e.w, (int) e.h);
-                g.setColor(e.fgColor);
-                g.drawOval((int) e.position.x, (int) e.position.y, (int) e.w, (int) e.h);
+                RenderCache.setColor(g, bgColor);
+                g.fillOval((int) x, (int) y, (int) w, (int) h);
+                RenderCache.setColor(g, fgColor);
+                g.drawOval((int) x, (int) y, (int) w, (int) h);
             }
             case IMAGE -> {
+                if (sprite != null) {
+                    // draw the pre-flipped atlas sprite according to the Entity's velocity on the horizontal axis.
+                    sprite.draw(g, (int) x, (int) y, (int) w, (int) h, flipped);
+                    return;
+                }
                 // draw the Entity image with a direction set according to the Entity's velocity on the horizontal axis.
-                g.drawImage(e.getImage(), (int) e.position.x, (int) e.position.y, (int) (e.velocity.x >= 0 ? e.w : -e.w), (int) e.h, null);
+                g.drawImage(image, (int) x, (int) y, (int) (flipped ? -w : w), (int) h, null);
             }
         }
     }
@@ -2203,6 +7628,23 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         if (Optional.ofNullable(sceneManager.getCurrent()).isPresent()) {
             sceneManager.getCurrent().dispose(this);
         }
+        sceneManager.dispose();
+        if (Optional.ofNullable(renderThread).isPresent()) {
+            rendering = false;
+            try {
+                renderThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (Optional.ofNullable(renderPool).isPresent()) {
+            renderPool.shutdown();
+        }
+        if (Optional.ofNullable(streamer).isPresent()) {
+            streamer.stop();
+        }
+        inputActions.stop();
+        simulationChecksum.stop();
         if (Optional.ofNullable(frame).isPresent()) {
             frame.dispose();
         }
@@ -2253,12 +7695,24 @@ public class KarmaPlatform extends JPanel implements KeyListener {
 
     @Override
     public void keyPressed(KeyEvent e) {
-        keys[e.getKeyCode()] = true;
+        if (!keyEvents.offer(e)) {
+            error("key event queue is full, event %s dropped", e.getKeyCode());
+        }
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        keys[e.getKeyCode()] = false;
+        if (!keyEvents.offer(e)) {
+            error("key event queue is full, event %s dropped", e.getKeyCode());
+        }
+    }
+
+    /**
+     * Process a released key on the game thread, from {@link KarmaPlatform#processKeyEvents()}.
+     *
+     * @param e the released {@link KeyEvent}.
+     */
+    private void processKeyReleased(KeyEvent e) {
         switch (e.getKeyCode()) {
             // [ESCAPE] quit the demo
             case KeyEvent.VK_ESCAPE -> {
@@ -2267,9 +7721,43 @@ public class KarmaPlatform extends JPanel implements KeyListener {
             // [CTRL]+[Z] reset the scene
             case KeyEvent.VK_Z -> {
                 if (e.isControlDown()) {
-                    sceneManager.getCurrent().clearEntities();
-                    sceneManager.getCurrent().create(this);
+                    if (Optional.ofNullable(streamer).isPresent()) {
+                        streamer.reset();
+                    }
+                    initialSnapshot.restore(sceneManager.getCurrent());
+                    contacts.clear();
+                    sceneManager.getCurrent().initialize(this);
+                }
+            }
+            // [P] pause/resume the simulation in debug mode
+            case KeyEvent.VK_P -> {
+                if (isDebugGreaterThan(0)) {
+                    paused = !paused;
+                }
+            }
+            // [F6] step one tick back in debug mode (processed by the game loop)
+            case KeyEvent.VK_F6 -> {
+                if (isDebugGreaterThan(0) && Optional.ofNullable(rewindBuffer).isPresent()) {
+                    paused = true;
+                    stepRequest = -1;
+                }
+            }
+            // [F7] step one tick forward in debug mode (processed by the game loop)
+            case KeyEvent.VK_F7 -> {
+                if (isDebugGreaterThan(0) && Optional.ofNullable(rewindBuffer).isPresent()) {
+                    paused = true;
+                    stepRequest = 1;
+                }
+            }
+            // [F5] quick-save the scene state
+            case KeyEvent.VK_F5 -> quickSaveSnapshot.capture(sceneManager.getCurrent());
+            // [F9] quick-load the scene state
+            case KeyEvent.VK_F9 -> {
+                if (Optional.ofNullable(streamer).isPresent()) {
+                    streamer.reset();
                 }
+                quickSaveSnapshot.restore(sceneManager.getCurrent());
+                contacts.clear();
             }
             // [CTRL]+[R] Reshuffle speed on Entities "enemy_$"
 
@@ -2291,7 +7779,56 @@ public class KarmaPlatform extends JPanel implements KeyListener {
     }
 
     public boolean isKeyPressed(int vkKeyCode) {
-        return keys[vkKeyCode];
+        return inputSnapshot.isDown(vkKeyCode);
+    }
+
+    /**
+     * @param vkKeyCode the {@link KeyEvent} key code.
+     * @return true if the key has been pressed during the current tick.
+     */
+    public boolean isKeyJustPressed(int vkKeyCode) {
+        return inputSnapshot.isPressed(vkKeyCode);
+    }
+
+    /**
+     * @param vkKeyCode the {@link KeyEvent} key code.
+     * @return true if the key has been released during the current tick.
+     */
+    public boolean isKeyJustReleased(int vkKeyCode) {
+        return inputSnapshot.isReleased(vkKeyCode);
+    }
+
+    public InputSnapshot getInput() {
+        return inputSnapshot;
+    }
+
+    /**
+     * @param action the name of the action as defined in the {@link InputActions}.
+     * @return true if the action is active during the current tick.
+     */
+    public boolean isActionActive(String action) {
+        return inputActions.isActive(inputActions.getActionId(action));
+    }
+
+    public InputActions getInputActions() {
+        return inputActions;
+    }
+
+    /**
+     * Retrieve the random generator of the platform. Its seed can be set through the
+     * <code>app.simulation.seed</code> configuration key to get deterministic runs.
+     *
+     * @return the {@link Random} instance to be used by the game.
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    /**
+     * @return the number of simulation ticks since the start.
+     */
+    public long getTick() {
+        return tick;
     }
 
     /*---- Getters / Setters ----*/
@@ -2394,6 +7931,28 @@ public class KarmaPlatform extends JPanel implements KeyListener {
         return world;
     }
 
+    public SpriteAtlas getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * @return the {@link RendererRegistry} to register the {@link Renderer}s of new {@link Entity} types.
+     */
+    public RendererRegistry getRenderers() {
+        return renderers;
+    }
+
+    /**
+     * @return the {@link DirtyRegionTracker}, to declare the areas drawn by a {@link Scene} in dirty rendering mode.
+     */
+    public DirtyRegionTracker getDirtyTracker() {
+        return dirtyTracker;
+    }
+
+    public TextCache getTextCache() {
+        return textCache;
+    }
+
     public SceneManager getSceneManager() {
         return sceneManager;
     }
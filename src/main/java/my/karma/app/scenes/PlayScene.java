@@ -9,11 +9,14 @@ import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class PlayScene extends KarmaPlatform.AbstractScene {
 
   private int lives = 5;
   private int score = 0;
+  private double drawnEnergy = Double.NaN;
+  private double drawnMana = Double.NaN;
 
   public PlayScene(KarmaPlatform app) {
     super(app);
@@ -131,9 +134,9 @@ public class PlayScene extends KarmaPlatform.AbstractScene {
       double maxX = getWorld().getPlayArea().getWidth() / 16.0;
       double maxY = getWorld().getPlayArea().getHeight() / 32.0;
 
-      double pw = (2 + Math.random() * 4);
-      double px = (2 + (Math.random() * (maxX - (4 + pw)))) * 16;
-      double py = (1 + (Math.random() * (maxY - 2))) * 32;
+      double pw = (2 + getRandom().nextDouble() * 4);
+      double px = (2 + (getRandom().nextDouble() * (maxX - (4 + pw)))) * 16;
+      double py = (1 + (getRandom().nextDouble() * (maxY - 2))) * 32;
 
       KarmaPlatform.Entity platform = new KarmaPlatform.Entity("platform_" + j)
         .setPosition(px, py)
@@ -154,7 +157,7 @@ public class PlayScene extends KarmaPlatform.AbstractScene {
 
   private boolean isNotIntersectingWith(List<KarmaPlatform.Entity> platforms, KarmaPlatform.Entity platform) {
     List<KarmaPlatform.Entity> collidingWith = platforms.stream()
-      .filter(p -> p.box.intersects(platform.box))
+      .filter(p -> p.getBox().intersects(platform.getBox()))
       .toList();
     return collidingWith.isEmpty();
   }
@@ -211,8 +214,8 @@ public class PlayScene extends KarmaPlatform.AbstractScene {
       addEntity(
         new KarmaPlatform.Entity("ball_" + i)
           .setPosition(
-            32 + (Math.random() * (getWorld().getPlayArea().getWidth() - 64)),
-            32 + (Math.random() * (getWorld().getPlayArea().getHeight() - 64)))
+            32 + (getRandom().nextDouble() * (getWorld().getPlayArea().getWidth() - 64)),
+            32 + (getRandom().nextDouble() * (getWorld().getPlayArea().getHeight() - 64)))
           .setSize(8, 8)
           .setPhysicType(KarmaPlatform.PhysicType.DYNAMIC)
           .setBackgroundColor(new Color(0.9f, 0.8f, 0.1f))
@@ -220,14 +223,14 @@ public class PlayScene extends KarmaPlatform.AbstractScene {
           .setType(KarmaPlatform.EntityType.ELLIPSE)
           .setPriority(-i)
           .setVelocity(
-            (0.5 - Math.random()) * 0.25,
-            (0.5 - Math.random()) * 0.25)
+            (0.5 - getRandom().nextDouble()) * 0.25,
+            (0.5 - getRandom().nextDouble()) * 0.25)
           .setMaterial(ballMat)
           .setMass(5.0)
           .setAttribute("energy", 20.0)
           .addBehavior(new KarmaPlatform.Behavior<>() {
             @Override
-            public void onCollision(KarmaPlatform.CollisionEvent ce) {
+            public void onCollisionEnter(KarmaPlatform.CollisionEvent ce) {
               // get src Entity energy
               if (ce.getSrc().getAttribute("energy") != null && ce.getDst().name.startsWith("player")) {
                 double energy = ce.getSrc().getAttribute("energy");
@@ -247,6 +250,8 @@ public class PlayScene extends KarmaPlatform.AbstractScene {
               }
             }
           }).addBehavior(new KarmaPlatform.Behavior<>() {
+            private final Ellipse2D.Double range = new Ellipse2D.Double();
+
             @Override
             public void onUpdate(KarmaPlatform a, KarmaPlatform.Entity e, double d) {
               KarmaPlatform.Entity player = getEntity("player");
@@ -259,12 +264,10 @@ public class PlayScene extends KarmaPlatform.AbstractScene {
             @Override
             public void onDraw(KarmaPlatform a, Graphics2D g, KarmaPlatform.Entity e) {
               if (KarmaPlatform.isDebugGreaterThan(3)) {
-                g.setColor(Color.YELLOW);
-                g.setStroke(new BasicStroke(0.05f));
-                g.draw(
-                  new Ellipse2D.Double(
-                    (int) e.getCenter().x - e.w, (int) e.getCenter().y - e.h,
-                    (int) 50.0, (int) 50.0));
+                KarmaPlatform.RenderCache.setColor(g, Color.YELLOW);
+                KarmaPlatform.RenderCache.setStroke(g, 0.05f);
+                range.setFrame((int) e.getCenter().x - e.w, (int) e.getCenter().y - e.h, 50.0, 50.0);
+                g.draw(range);
               }
 
             }
@@ -282,20 +285,42 @@ public class PlayScene extends KarmaPlatform.AbstractScene {
   public void update(KarmaPlatform app, double d) {
     ((KarmaPlatform.TextObject) getEntity("lives")).setValue(lives);
     ((KarmaPlatform.TextObject) getEntity("score")).setValue(score);
+    // the energy and mana bars are drawn by the scene: declare their area when they change.
+    KarmaPlatform.Entity player = getEntity("player");
+    double energy = player.getAttribute("energy");
+    double mana = player.getAttribute("mana");
+    if (energy != drawnEnergy || mana != drawnMana) {
+      app.getDirtyTracker().markDirty(app.getScreenSize().width - 81, 9, 43, 13);
+      drawnEnergy = energy;
+      drawnMana = mana;
+    }
   }
 
   @Override
   public void draw(KarmaPlatform app, Graphics2D g) {
+    KarmaPlatform.Entity player = getEntity("player");
+    drawHud(app, g, player.getAttribute("energy"), player.getAttribute("mana"));
+  }
 
+  @Override
+  public void capture(Map<String, Object> state) {
     KarmaPlatform.Entity player = getEntity("player");
-    g.setStroke(new BasicStroke(1.0f));
-    double energy = player.getAttribute("energy");
+    state.put("energy", player.getAttribute("energy"));
+    state.put("mana", player.getAttribute("mana"));
+  }
+
+  @Override
+  public void draw(KarmaPlatform app, Graphics2D g, Map<String, Object> state) {
+    drawHud(app, g, (double) state.get("energy"), (double) state.get("mana"));
+  }
+
+  private void drawHud(KarmaPlatform app, Graphics2D g, double energy, double mana) {
+    KarmaPlatform.RenderCache.setStroke(g, 1.0f);
     g.setColor(Color.RED);
     g.fillRect(app.getScreenSize().width - 80, 10, (int) ((energy / 100.0) * 40.0), 4);
     g.setColor(Color.BLACK);
     g.drawRect(app.getScreenSize().width - 80, 10, (int) ((energy / 100.0) * 40.0), 4);
 
-    double mana = player.getAttribute("mana");
     g.setColor(Color.BLUE);
     g.fillRect(app.getScreenSize().width - 80, 16, (int) ((mana / 100.0) * 40.0), 4);
     g.setColor(Color.BLACK);
@@ -313,8 +338,8 @@ public class PlayScene extends KarmaPlatform.AbstractScene {
             .filter(entity -> entity.isActive() && entity.name.startsWith("enemy_"))
             .forEach(entity -> entity.setVelocity(
               new KarmaPlatform.Vector2D(
-                Math.random() * 5.0,
-                Math.random() * 5.0)));
+                getRandom().nextDouble() * 5.0,
+                getRandom().nextDouble() * 5.0)));
         }
       }
       case KeyEvent.VK_PAGE_UP -> generateNRJBalls(10);
@@ -0,0 +1,123 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class KarmaCollisionTest {
+
+    @Test
+    public void collisionEventsAreHashedAsUnorderedPairs() {
+        KarmaPlatform.Entity a = new KarmaPlatform.Entity("a");
+        KarmaPlatform.Entity b = new KarmaPlatform.Entity("b");
+        KarmaPlatform.CollisionEvent ab = new KarmaPlatform.CollisionEvent(a, b);
+        KarmaPlatform.CollisionEvent ba = new KarmaPlatform.CollisionEvent(b, a);
+        Assertions.assertEquals(ab, ba, "Pair order must not matter");
+        Assertions.assertEquals(ab.hashCode(), ba.hashCode(), "Equal events must have the same hash code");
+        Assertions.assertNotEquals(ab, "a", "An event is not equal to another type");
+    }
+
+    @Test
+    public void contactCacheFindsAndRemovesPairs() {
+        KarmaPlatform.ContactCache cache = new KarmaPlatform.ContactCache();
+        KarmaPlatform.Entity player = new KarmaPlatform.Entity("player");
+        List<KarmaPlatform.Entity> others = new ArrayList<>();
+        List<KarmaPlatform.CollisionEvent> events = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            KarmaPlatform.Entity o = new KarmaPlatform.Entity("o" + i);
+            others.add(o);
+            events.add(cache.add(KarmaPlatform.ContactCache.pairId(player, o), player, o));
+        }
+        Assertions.assertEquals(200, cache.size(), "Wrong number of contacts");
+        for (int i = 0; i < 200; i += 2) {
+            cache.remove(events.get(i));
+            cache.release(events.get(i));
+        }
+        Assertions.assertEquals(100, cache.size(), "Contacts have not been removed");
+        for (int i = 0; i < 200; i++) {
+            KarmaPlatform.CollisionEvent ce = cache.find(KarmaPlatform.ContactCache.pairId(player, others.get(i)));
+            if (i % 2 == 0) {
+                Assertions.assertNull(ce, "Removed contact must not be found");
+            } else {
+                Assertions.assertSame(events.get(i), ce, "Contact must be found after removals");
+            }
+        }
+        Assertions.assertNull(cache.find(KarmaPlatform.ContactCache.pairId(others.get(1), player)),
+            "Reversed pair is another contact");
+
+        KarmaPlatform.CollisionEvent reused = cache.add(
+            KarmaPlatform.ContactCache.pairId(player, others.get(0)), player, others.get(0));
+        Assertions.assertTrue(events.stream().anyMatch(ce -> ce == reused), "Released event has not been reused");
+        Assertions.assertSame(others.get(0), reused.getDst(), "Reused event has wrong entities");
+    }
+
+    @Test
+    public void contactCacheReleasesRemovedEntitiesContacts() {
+        KarmaPlatform.ContactCache cache = new KarmaPlatform.ContactCache();
+        KarmaPlatform.Entity a = new KarmaPlatform.Entity("a");
+        KarmaPlatform.Entity b = new KarmaPlatform.Entity("b");
+        KarmaPlatform.Entity c = new KarmaPlatform.Entity("c");
+        a.register(cache.add(KarmaPlatform.ContactCache.pairId(a, b), a, b));
+        a.register(cache.add(KarmaPlatform.ContactCache.pairId(a, c), a, c));
+        b.register(cache.add(KarmaPlatform.ContactCache.pairId(b, c), b, c));
+
+        cache.clear(a);
+        Assertions.assertEquals(1, cache.size(), "Removed entity contacts have not been released");
+        Assertions.assertTrue(a.getCollisions().isEmpty(), "Removed entity still has collisions");
+        Assertions.assertNull(cache.find(KarmaPlatform.ContactCache.pairId(a, b)), "Removed contact must not be found");
+        Assertions.assertEquals(1, b.getCollisions().size(), "Other contacts must be kept");
+
+        cache.clear();
+        Assertions.assertEquals(0, cache.size(), "Contacts have not been released");
+        Assertions.assertTrue(b.getCollisions().isEmpty(), "Entity still has collisions");
+        Assertions.assertNull(cache.find(KarmaPlatform.ContactCache.pairId(b, c)), "Released contact must not be found");
+    }
+
+    @Test
+    public void contactSolverStopsAndSeparatesBodies() {
+        KarmaPlatform.World world = new KarmaPlatform.World();
+        KarmaPlatform.ContactCache cache = new KarmaPlatform.ContactCache();
+        KarmaPlatform.ContactSolver solver = new KarmaPlatform.ContactSolver().setIterations(4);
+        KarmaPlatform.Entity box = new KarmaPlatform.Entity("box")
+            .setPosition(10, 7).setSize(10, 10).setVelocity(0.0, 0.05);
+        KarmaPlatform.Entity floor = new KarmaPlatform.Entity("floor")
+            .setPhysicType(KarmaPlatform.PhysicType.STATIC)
+            .setPosition(0, 15).setSize(100, 10);
+
+        KarmaPlatform.CollisionEvent ce = cache.add(KarmaPlatform.ContactCache.pairId(box, floor), box, floor);
+        KarmaPlatform.CollisionEvent reverse = cache.add(KarmaPlatform.ContactCache.pairId(floor, box), floor, box);
+        solver.add(ce, cache);
+        solver.add(reverse, cache);
+        Assertions.assertEquals(1, solver.getContactCount(), "Reversed pair must be solved once");
+        solver.solve(world);
+
+        Assertions.assertEquals(0.0, box.getVelocity().y, 1e-9, "Box must stop on the floor");
+        Assertions.assertEquals(0.0, floor.getVelocity().y, 1e-9, "Static entity must not move");
+        Assertions.assertTrue(box.getPosition().y < 7.0, "Penetration has not been corrected");
+        Assertions.assertTrue(box.getPosition().y >= 5.0 - 0.5, "Position correction went too far");
+        Assertions.assertEquals(15.0, floor.getPosition().y, "Static entity must not be moved");
+    }
+
+    @Test
+    public void contactSolverWarmStartsRestingContacts() {
+        KarmaPlatform.World world = new KarmaPlatform.World();
+        KarmaPlatform.ContactCache cache = new KarmaPlatform.ContactCache();
+        KarmaPlatform.ContactSolver solver = new KarmaPlatform.ContactSolver().setIterations(1);
+        KarmaPlatform.Entity box = new KarmaPlatform.Entity("box").setPosition(10, 5.2).setSize(10, 10);
+        KarmaPlatform.Entity floor = new KarmaPlatform.Entity("floor")
+            .setPhysicType(KarmaPlatform.PhysicType.STATIC)
+            .setPosition(0, 15).setSize(100, 10);
+        KarmaPlatform.CollisionEvent ce = cache.add(KarmaPlatform.ContactCache.pairId(box, floor), box, floor);
+        for (int tick = 0; tick < 10; tick++) {
+            // gravity pushes the box down on each tick.
+            box.getVelocity().y += 0.001;
+            solver.add(ce, cache);
+            solver.solve(world);
+            Assertions.assertEquals(0.0, box.getVelocity().y, 1e-9, "Resting box must not move nor bounce");
+        }
+        Assertions.assertEquals(5.2, box.getPosition().y, 1e-9, "Contact within the slop must not be pushed apart");
+    }
+}
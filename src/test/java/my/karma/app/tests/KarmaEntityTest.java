@@ -0,0 +1,170 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import my.karma.app.tests.scenes.TestScene;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class KarmaEntityTest {
+
+    @Test
+    public void entityAccumulatesForces() {
+        KarmaPlatform.Entity e = new KarmaPlatform.Entity("e")
+            .applyForce(0.1, 0.2)
+            .applyForce(0.3, -0.1)
+            .addForce(new KarmaPlatform.Vector2D(0.1, 0.0));
+        Assertions.assertEquals(0.5, e.getForceX(), 1e-9, "Wrong accumulated horizontal force");
+        Assertions.assertEquals(0.1, e.getForceY(), 1e-9, "Wrong accumulated vertical force");
+        e.resetForces();
+        Assertions.assertEquals(0.0, e.getForceX(), "Forces have not been reset");
+        Assertions.assertEquals(0.0, e.getForceY(), "Forces have not been reset");
+    }
+
+    @Test
+    public void entityForceGeneratorsAccumulateForces() {
+        KarmaPlatform.Entity e = new KarmaPlatform.Entity("e")
+            .setPosition(100, 0)
+            .setSize(0, 0)
+            .setVelocity(2.0, -1.0)
+            .addForceGenerator(new KarmaPlatform.DragForce(0.5))
+            .addForceGenerator(new KarmaPlatform.SpringForce(new KarmaPlatform.Vector2D(0, 0), 0.01, 50));
+        e.getForceGenerators().forEach(fg -> fg.apply(e, 16.0));
+        Assertions.assertEquals(-1.0 - 0.5, e.getForceX(), 1e-9, "Wrong drag and spring horizontal force");
+        Assertions.assertEquals(0.5, e.getForceY(), 1e-9, "Wrong drag vertical force");
+    }
+
+    @Test
+    public void entityBoxAndCenterFollowPositionLazily() {
+        KarmaPlatform.Entity e = new KarmaPlatform.Entity("e").setPosition(10, 20).setSize(8, 4);
+        KarmaPlatform.Vector2D center = e.getCenter();
+        Assertions.assertEquals(14.0, center.x, "Wrong center");
+        Assertions.assertEquals(20.0, e.getBox().getY(), "Wrong box");
+        e.getPosition().x = 30;
+        Assertions.assertEquals(30.0, e.getBox().getX(), "Box must follow a direct position change");
+        Assertions.assertSame(center, e.getCenter(), "Center must be computed in place");
+        Assertions.assertEquals(34.0, e.getCenter().x, "Center must follow a direct position change");
+        e.setSize(10, 10);
+        Assertions.assertEquals(10.0, e.getBox().getWidth(), "Box must follow a size change");
+    }
+
+    @Test
+    public void collisionLayersFilterPairs() {
+        KarmaPlatform.Entity player = new KarmaPlatform.Entity("player").setCollisionCategory(0b01).setCollisionMask(0b10);
+        KarmaPlatform.Entity platform = new KarmaPlatform.Entity("platform").setCollisionCategory(0b10);
+        KarmaPlatform.Entity hud = new KarmaPlatform.Entity("hud").setCollisionCategory(0b100).setCollisionMask(0);
+        Assertions.assertTrue(player.canCollideWith(platform), "Player must collide with platforms");
+        Assertions.assertFalse(player.canCollideWith(hud), "HUD must not collide");
+        Assertions.assertFalse(hud.canCollideWith(platform), "HUD must not collide");
+
+        KarmaPlatform.Entity other = new KarmaPlatform.Entity("other").setPhysicType(KarmaPlatform.PhysicType.STATIC);
+        platform.setPhysicType(KarmaPlatform.PhysicType.STATIC);
+        Assertions.assertFalse(platform.canCollideWith(other), "Static pairs must be skipped");
+    }
+
+    @Test
+    public void updateLODFollowsTheDistanceToTheViewport() {
+        Rectangle2D viewport = new Rectangle2D.Double(0, 0, 320, 200);
+        KarmaPlatform.Entity e = new KarmaPlatform.Entity("e").setSize(10, 10).setUpdateLOD(50, 200, 4);
+        Assertions.assertEquals(KarmaPlatform.UpdateLOD.NEAR, e.setPosition(100, 100).getUpdateLOD(viewport),
+            "Entity in the viewport must be NEAR");
+        Assertions.assertEquals(KarmaPlatform.UpdateLOD.NEAR, e.setPosition(355, 100).getUpdateLOD(viewport),
+            "Entity at the near distance must be NEAR");
+        Assertions.assertEquals(KarmaPlatform.UpdateLOD.MID, e.setPosition(420, 100).getUpdateLOD(viewport),
+            "Entity between near and far distances must be MID");
+        Assertions.assertEquals(KarmaPlatform.UpdateLOD.FAR, e.setPosition(100, 500).getUpdateLOD(viewport),
+            "Entity beyond the far distance must be FAR");
+        Assertions.assertEquals(KarmaPlatform.UpdateLOD.NEAR, e.getUpdateLOD(null),
+            "Entity without viewport must be NEAR");
+        Assertions.assertEquals(KarmaPlatform.UpdateLOD.NEAR,
+            new KarmaPlatform.Entity("f").setPosition(100, 500).getUpdateLOD(viewport),
+            "Entity without LOD must be NEAR");
+    }
+
+    private static TestScene startLODScene(KarmaPlatform app) {
+        app.setSpacePartition(new KarmaPlatform.SpacePartition(app));
+        TestScene scene = new TestScene(app);
+        app.getSceneManager().add(scene);
+        app.getSceneManager().start("test");
+        KarmaPlatform.Entity target = new KarmaPlatform.Entity("target").setPosition(100, 100).setSize(10, 10)
+            .setPhysicType(KarmaPlatform.PhysicType.NONE);
+        scene.addEntity(target);
+        scene.setCamera(new KarmaPlatform.Camera("cam")
+            .setTarget(target)
+            .setViewport(new Rectangle2D.Double(0, 0, 320, 200)));
+        return scene;
+    }
+
+    private static KarmaPlatform.Behavior<KarmaPlatform.Entity> recordUpdates(List<Double> updates) {
+        return new KarmaPlatform.Behavior<>() {
+            @Override
+            public void onUpdate(KarmaPlatform a, KarmaPlatform.Entity e, double d) {
+                updates.add(d);
+            }
+        };
+    }
+
+    @Test
+    public void updateLODMidAccumulatesElapsedTimeAndFarOnlyRunsBehaviors() {
+        KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+        TestScene scene = startLODScene(app);
+        List<Double> midUpdates = new ArrayList<>();
+        scene.addEntity(new KarmaPlatform.Entity("mid").setPosition(400, 100).setSize(10, 10)
+            .setUpdateLOD(50, 500, 4)
+            .addBehavior(recordUpdates(midUpdates)));
+        // two overlapping FAR dynamic entities inside a disturbance.
+        List<Double> farUpdates = new ArrayList<>();
+        KarmaPlatform.Entity far = new KarmaPlatform.Entity("far").setPosition(100, 500).setSize(10, 10)
+            .setUpdateLOD(50, 200, 4)
+            .addBehavior(recordUpdates(farUpdates));
+        scene.addEntity(far);
+        scene.addEntity(new KarmaPlatform.Entity("rock").setPosition(102, 502).setSize(10, 10)
+            .setUpdateLOD(50, 200, 4));
+        app.getWorld().addDisturbance((KarmaPlatform.Disturbance) new KarmaPlatform.Disturbance("wind")
+            .setPosition(0, 400)
+            .setSize(400, 200)
+            .addForce(new KarmaPlatform.Vector2D(0.1, 0.0)));
+
+        for (int i = 0; i < 8; i++) {
+            app.update(16.0, new HashMap<>());
+        }
+        Assertions.assertEquals(List.of(64.0, 64.0), midUpdates,
+            "MID entity must be updated every 4 ticks with the accumulated elapsed time");
+        Assertions.assertEquals(8, farUpdates.size(), "FAR entity's behaviors must be updated on each tick");
+        Assertions.assertEquals(0.0, far.getForceX(), "FAR entity must not be pushed by disturbances");
+        Assertions.assertEquals(500.0, far.getPosition().y, "FAR entity must not be moved by the physic");
+        Assertions.assertTrue(far.getCollisions().isEmpty(), "FAR entity must not collide");
+    }
+
+    @Test
+    public void updateLODDropsTheMidAccumulationOnTierChange() {
+        KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+        TestScene scene = startLODScene(app);
+        List<Double> updates = new ArrayList<>();
+        KarmaPlatform.Entity e = new KarmaPlatform.Entity("e").setPosition(400, 100).setSize(10, 10)
+            .setUpdateLOD(50, 500, 4)
+            .addBehavior(recordUpdates(updates));
+        scene.addEntity(e);
+
+        // 2 MID ticks, then back into the viewport for one tick.
+        app.update(16.0, new HashMap<>());
+        app.update(16.0, new HashMap<>());
+        e.setPosition(100, 100);
+        app.update(16.0, new HashMap<>());
+        Assertions.assertEquals(List.of(16.0), updates, "NEAR entity must be updated on each tick");
+
+        // out again: the accumulation restarts from scratch.
+        e.setPosition(400, 100);
+        app.update(16.0, new HashMap<>());
+        app.update(16.0, new HashMap<>());
+        Assertions.assertEquals(List.of(16.0), updates, "Previous MID ticks must not be replayed");
+        app.update(16.0, new HashMap<>());
+        app.update(16.0, new HashMap<>());
+        Assertions.assertEquals(List.of(16.0, 64.0), updates,
+            "MID entity must be updated after its own 4 ticks");
+    }
+}
@@ -0,0 +1,122 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class KarmaInputTest {
+
+    private static KarmaPlatform createApp() {
+        KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+        app.getSceneManager().start();
+        return app;
+    }
+
+    private static KeyEvent key(KarmaPlatform app, int id, int keyCode) {
+        return new KeyEvent(app, id, 0, 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+    }
+
+    @Test
+    public void keyEventQueueKeepsTheEventsOrder() {
+        KarmaPlatform app = createApp();
+        KarmaPlatform.KeyEventQueue queue = new KarmaPlatform.KeyEventQueue(4);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(queue.offer(key(app, KeyEvent.KEY_PRESSED, KeyEvent.VK_A + i)), "Event must be queued");
+        }
+        Assertions.assertFalse(queue.offer(key(app, KeyEvent.KEY_PRESSED, KeyEvent.VK_Z)), "Full queue must drop the event");
+        Assertions.assertEquals(KeyEvent.VK_A, queue.poll().getKeyCode(), "Events must be polled in order");
+        Assertions.assertEquals(KeyEvent.VK_B, queue.poll().getKeyCode(), "Events must be polled in order");
+        // wrap around the ring.
+        Assertions.assertTrue(queue.offer(key(app, KeyEvent.KEY_RELEASED, KeyEvent.VK_A)), "Event must be queued");
+        Assertions.assertTrue(queue.offer(key(app, KeyEvent.KEY_RELEASED, KeyEvent.VK_B)), "Event must be queued");
+        int[] expected = {KeyEvent.VK_C, KeyEvent.VK_D, KeyEvent.VK_A, KeyEvent.VK_B};
+        for (int code : expected) {
+            Assertions.assertEquals(code, queue.poll().getKeyCode(), "Events must be polled in order");
+        }
+        Assertions.assertNull(queue.poll(), "Empty queue must return null");
+    }
+
+    @Test
+    public void inputSnapshotKeepsEdgesWithinATick() {
+        KarmaPlatform app = createApp();
+        // pressed and released between two ticks.
+        app.keyPressed(key(app, KeyEvent.KEY_PRESSED, KeyEvent.VK_SPACE));
+        app.keyReleased(key(app, KeyEvent.KEY_RELEASED, KeyEvent.VK_SPACE));
+        app.input();
+        Assertions.assertTrue(app.isKeyJustPressed(KeyEvent.VK_SPACE), "Press must be seen during the tick");
+        Assertions.assertTrue(app.isKeyJustReleased(KeyEvent.VK_SPACE), "Release must be seen during the tick");
+        Assertions.assertFalse(app.isKeyPressed(KeyEvent.VK_SPACE), "Released key must not be down");
+
+        app.input();
+        Assertions.assertFalse(app.isKeyJustPressed(KeyEvent.VK_SPACE), "Edges must be cleared on the next tick");
+        Assertions.assertFalse(app.isKeyJustReleased(KeyEvent.VK_SPACE), "Edges must be cleared on the next tick");
+
+        // held over several ticks.
+        app.keyPressed(key(app, KeyEvent.KEY_PRESSED, KeyEvent.VK_SPACE));
+        app.input();
+        Assertions.assertTrue(app.isKeyPressed(KeyEvent.VK_SPACE), "Pressed key must be down");
+        Assertions.assertTrue(app.isKeyJustPressed(KeyEvent.VK_SPACE), "Press must be seen during the tick");
+        app.input();
+        Assertions.assertTrue(app.isKeyPressed(KeyEvent.VK_SPACE), "Held key must stay down");
+        Assertions.assertFalse(app.isKeyJustPressed(KeyEvent.VK_SPACE), "Held key is not pressed again");
+        app.keyReleased(key(app, KeyEvent.KEY_RELEASED, KeyEvent.VK_SPACE));
+        app.input();
+        Assertions.assertFalse(app.isKeyPressed(KeyEvent.VK_SPACE), "Released key must not be down");
+        Assertions.assertTrue(app.isKeyJustReleased(KeyEvent.VK_SPACE), "Release must be seen during the tick");
+    }
+
+    @Test
+    public void arrowActionsAreBoundByDefault() {
+        KarmaPlatform.InputActions actions = new KarmaPlatform.InputActions();
+        Assertions.assertTrue(actions.getActionId("up") >= 0, "up action must be bound by default");
+        Assertions.assertTrue(actions.getActionId("down") >= 0, "down action must be bound by default");
+        Assertions.assertTrue(actions.getActionId("left") >= 0, "left action must be bound by default");
+        Assertions.assertTrue(actions.getActionId("right") >= 0, "right action must be bound by default");
+    }
+
+    @Test
+    public void wrongBindingsAreSkipped() {
+        KarmaPlatform.InputActions actions = new KarmaPlatform.InputActions();
+        actions.parse("jump:SPACE,broken,:ENTER,fire:CONTROL");
+        Assertions.assertTrue(actions.getActionId("jump") >= 0, "Binding before the wrong one has been lost");
+        Assertions.assertTrue(actions.getActionId("fire") >= 0, "Binding after the wrong one has been lost");
+        Assertions.assertEquals(-1, actions.getActionId("broken"), "Wrong binding must be skipped");
+    }
+
+    @Test
+    public void actionsAndKeysAreRecordedThenReplayed() throws IOException {
+        Path log = Files.createTempFile("karma-input", ".log");
+        log.toFile().deleteOnExit();
+
+        KarmaPlatform app = createApp();
+        app.getInputActions().startRecording(log);
+        app.keyPressed(key(app, KeyEvent.KEY_PRESSED, KeyEvent.VK_LEFT));
+        app.input();
+        app.input();
+        app.keyReleased(key(app, KeyEvent.KEY_RELEASED, KeyEvent.VK_LEFT));
+        app.keyPressed(key(app, KeyEvent.KEY_PRESSED, KeyEvent.VK_ENTER));
+        app.input();
+        app.getInputActions().stop();
+
+        KarmaPlatform replayed = createApp();
+        replayed.getInputActions().startReplay(log);
+        // the live keyboard is ignored while replaying.
+        replayed.keyPressed(key(replayed, KeyEvent.KEY_PRESSED, KeyEvent.VK_RIGHT));
+        replayed.input();
+        Assertions.assertTrue(replayed.isActionActive("left"), "Recorded action has not been replayed");
+        Assertions.assertTrue(replayed.isKeyJustPressed(KeyEvent.VK_LEFT), "Recorded key has not been replayed");
+        Assertions.assertFalse(replayed.isActionActive("right"), "Keyboard must be ignored while replaying");
+        replayed.input();
+        Assertions.assertTrue(replayed.isActionActive("left"), "Recorded action has not been replayed");
+        Assertions.assertFalse(replayed.isKeyJustPressed(KeyEvent.VK_LEFT), "Key must only be pressed once");
+        replayed.input();
+        Assertions.assertFalse(replayed.isActionActive("left"), "Released action has not been replayed");
+        Assertions.assertTrue(replayed.isKeyJustReleased(KeyEvent.VK_LEFT), "Recorded release has not been replayed");
+        Assertions.assertTrue(replayed.isKeyPressed(KeyEvent.VK_ENTER), "Recorded key has not been replayed");
+    }
+}
@@ -0,0 +1,66 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+public class KarmaParticleTest {
+
+    private static KarmaPlatform.World createWorld() {
+        return new KarmaPlatform.World()
+            .setGravity(new KarmaPlatform.Vector2D(0, 0))
+            .setPlayArea(new Rectangle2D.Double(0, 0, 1000, 1000));
+    }
+
+    @Test
+    public void emitterBurstIsLimitedByCapacity() {
+        KarmaPlatform.ParticleSystem ps = new KarmaPlatform.ParticleSystem("sparks", 100);
+        ps.addEmitter(new KarmaPlatform.ParticleSystem.Emitter().setPosition(500, 500).burst(150));
+        ps.update(createWorld(), new double[0], 0, List.of(), 16);
+        Assertions.assertEquals(100, ps.getCount(), "Particles must be dropped beyond the capacity");
+    }
+
+    @Test
+    public void deadParticlesAreRemoved() {
+        KarmaPlatform.ParticleSystem ps = new KarmaPlatform.ParticleSystem("dust", 10);
+        ps.spawn(500, 500, 0, 0, 20, 0);
+        ps.spawn(500, 500, 0.01, 0, 100, 0);
+        KarmaPlatform.World world = createWorld();
+        ps.update(world, new double[0], 0, List.of(), 16);
+        Assertions.assertEquals(2, ps.getCount(), "Particles must still be alive");
+        ps.update(world, new double[0], 0, List.of(), 16);
+        Assertions.assertEquals(1, ps.getCount(), "Dead particle has not been removed");
+        Assertions.assertEquals(0.01f, ps.getVelocityX(0), 1e-6, "Living particle must replace the dead one");
+    }
+
+    @Test
+    public void particlesBounceOnStaticBoxes() {
+        KarmaPlatform.ParticleSystem ps = new KarmaPlatform.ParticleSystem("rain", 10).setBounce(0.5f);
+        ps.spawn(50, 90, 0, 1, 1000, 0);
+        double[] statics = {0, 100, 200, 120};
+        ps.update(createWorld(), statics, 1, List.of(), 16);
+        Assertions.assertEquals(90, ps.getY(0), 1e-6, "Particle must not enter the static box");
+        Assertions.assertEquals(-0.5f, ps.getVelocityY(0), 1e-6, "Particle must bounce on the static box");
+    }
+
+    @Test
+    public void particlesAreDrawnFromSnapshot() {
+        KarmaPlatform.ParticleSystem ps = new KarmaPlatform.ParticleSystem("sparks", 10)
+            .addEmitter(new KarmaPlatform.ParticleSystem.Emitter().setColors(Color.RED, Color.BLUE));
+        ps.spawn(4, 4, 0, 0, 100, 0);
+        KarmaPlatform.ParticleSystem.Snapshot s = ps.capture(new KarmaPlatform.ParticleSystem.Snapshot());
+        ps.spawn(8, 8, 0, 0, 100, 0);
+        Assertions.assertEquals(1, s.getCount(), "Snapshot must not follow the live particles");
+        BufferedImage img = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        s.draw(g);
+        g.dispose();
+        Assertions.assertEquals(Color.RED.getRGB(), img.getRGB(4, 4), "Particle has not been drawn");
+        Assertions.assertEquals(0, img.getRGB(8, 8), "Particle spawned after the snapshot must not be drawn");
+    }
+}
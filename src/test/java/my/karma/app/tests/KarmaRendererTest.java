@@ -0,0 +1,209 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import my.karma.app.tests.scenes.TestScene;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+public class KarmaRendererTest {
+
+    static class Ship extends KarmaPlatform.Entity {
+        public Ship(String name) {
+            super(name);
+        }
+    }
+
+    static class BigShip extends Ship {
+        public BigShip(String name) {
+            super(name);
+        }
+    }
+
+    @Test
+    public void registryResolvesNearestRegisteredClass() {
+        KarmaPlatform.RendererRegistry registry = new KarmaPlatform.RendererRegistry();
+        int entityKind = registry.register(KarmaPlatform.Entity.class, (app, g, e) -> {
+        });
+        int shipKind = registry.register(Ship.class, (app, g, e) -> {
+        });
+        Assertions.assertEquals(entityKind, registry.getKind(KarmaPlatform.GridObject.class), "Subclass must use its parent renderer");
+        Assertions.assertEquals(shipKind, registry.getKind(BigShip.class), "Subclass must use the nearest renderer");
+        Assertions.assertEquals(-1, registry.getKind(Object.class), "Unknown type must not have a renderer");
+    }
+
+    @Test
+    public void registryDrawsWithUserRenderer() {
+        KarmaPlatform.RendererRegistry registry = new KarmaPlatform.RendererRegistry();
+        List<String> drawn = new ArrayList<>();
+        registry.register(KarmaPlatform.Entity.class, (app, g, e) -> drawn.add("entity:" + e.name));
+        BigShip ship = new BigShip("ship");
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        registry.draw(null, g, ship);
+        registry.register(Ship.class, (app, g2, e) -> drawn.add("ship:" + e.name));
+        registry.draw(null, g, ship);
+        Assertions.assertEquals(List.of("entity:ship", "ship:ship"), drawn, "Renderer must be resolved again after a registration");
+    }
+
+    @Test
+    public void tripleBufferAlwaysGivesTheLatestPublishedFrame() {
+        KarmaPlatform.RenderTripleBuffer frames = new KarmaPlatform.RenderTripleBuffer();
+        Assertions.assertNull(frames.acquire(), "No frame must be available before publishing");
+        KarmaPlatform.RenderFrame first = frames.getWriteFrame();
+        frames.publish();
+        KarmaPlatform.RenderFrame second = frames.getWriteFrame();
+        Assertions.assertNotSame(first, second, "Published frame must not be written again");
+        frames.publish();
+        KarmaPlatform.RenderFrame drawn = frames.acquire();
+        Assertions.assertSame(second, drawn, "Latest published frame must be drawn");
+        Assertions.assertNull(frames.acquire(), "Same frame must not be drawn twice");
+        Assertions.assertNotSame(drawn, frames.getWriteFrame(), "Drawn frame must not be written");
+    }
+
+    @Test
+    public void dirtyTrackerOnlyRedrawsChangedAreas() {
+        KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+        TestScene scene = new TestScene(app);
+        KarmaPlatform.Entity ball = new KarmaPlatform.Entity("ball").setPosition(10, 10).setSize(8, 8);
+        KarmaPlatform.Entity wall = new KarmaPlatform.Entity("wall").setPosition(100, 100).setSize(20, 20);
+        List<KarmaPlatform.Entity> entities = List.of(ball, wall);
+        KarmaPlatform.DirtyRegionTracker tracker = new KarmaPlatform.DirtyRegionTracker();
+
+        Assertions.assertEquals(new Rectangle(0, 0, 320, 200), tracker.update(scene, entities, 0, 320, 200),
+            "First frame must be fully drawn");
+        Assertions.assertNull(tracker.update(scene, entities, 1, 320, 200), "Nothing changed, nothing to draw");
+
+        ball.getPosition().x = 20;
+        Rectangle region = tracker.update(scene, entities, 2, 320, 200);
+        Assertions.assertEquals(new Rectangle(8, 8, 22, 12), region, "Old and new areas must be drawn again");
+
+        region = tracker.update(scene, List.of(ball), 3, 320, 200);
+        Assertions.assertEquals(new Rectangle(98, 98, 24, 24), region, "Removed entity area must be drawn again");
+    }
+
+    @Test
+    public void renderCacheInternsGraphicsState() {
+        Assertions.assertSame(KarmaPlatform.RenderCache.stroke(0.5f), KarmaPlatform.RenderCache.stroke(0.5f),
+            "Stroke has not been interned");
+        Assertions.assertSame(KarmaPlatform.RenderCache.color(0.0f, 1.0f, 0.0f, 0.5f),
+            KarmaPlatform.RenderCache.color(0.0f, 1.0f, 0.0f, 0.5f), "Color has not been interned");
+        Font base = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+        Font small = KarmaPlatform.RenderCache.font(base, 9.0f);
+        Assertions.assertEquals(9.0f, small.getSize2D(), "Wrong derived font size");
+        Assertions.assertSame(small, KarmaPlatform.RenderCache.font(base, 9.0f), "Derived font has not been interned");
+        Assertions.assertSame(base, KarmaPlatform.RenderCache.font(base, 12.0f), "Same size must return the base font");
+        Assertions.assertSame(KarmaPlatform.RenderCache.number(12), KarmaPlatform.RenderCache.number(12),
+            "Number label has not been interned");
+    }
+
+    @Test
+    public void renderCacheIsSharedBetweenThreads() throws InterruptedException {
+        int nbThreads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<String> errors = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < nbThreads; t++) {
+            int offset = t;
+            threads.add(new Thread(() -> {
+                Font base = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+                try {
+                    start.await();
+                    for (int i = 0; i < 20000; i++) {
+                        // many colors sharing the same slots, and new strokes and fonts growing the tables.
+                        int v = (i + offset) % 256;
+                        if (KarmaPlatform.RenderCache.color(v / 255.0f, 0.0f, 1.0f, 1.0f).getRGB() != (0xFF0000FF | v << 16)) {
+                            errors.add("Wrong color for " + v);
+                        }
+                        float width = (i + offset) % 500 * 0.01f;
+                        if (KarmaPlatform.RenderCache.stroke(width).getLineWidth() != width) {
+                            errors.add("Wrong stroke for " + width);
+                        }
+                        float size = 4.0f + (i + offset) % 1000 * 0.01f;
+                        if (KarmaPlatform.RenderCache.font(base, size).getSize2D() != size) {
+                            errors.add("Wrong font for " + size);
+                        }
+                    }
+                } catch (InterruptedException | RuntimeException e) {
+                    errors.add(e.toString());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        Assertions.assertTrue(errors.isEmpty(), "Render cache returned wrong values: " + errors.stream().limit(3).toList());
+        Assertions.assertSame(KarmaPlatform.RenderCache.stroke(2.0f), KarmaPlatform.RenderCache.stroke(2.0f),
+            "Stroke has not been interned");
+    }
+
+    @Test
+    public void renderFrameDrawsTheSceneFromItsCapturedState() {
+        KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+        List<Object> drawn = new ArrayList<>();
+        app.getSceneManager().add(new TestScene(app) {
+            @Override
+            public String getTitle() {
+                return "hud";
+            }
+
+            @Override
+            public void capture(Map<String, Object> state) {
+                state.put("score", 42);
+            }
+
+            @Override
+            public void draw(KarmaPlatform app, Graphics2D g) {
+                drawn.add("live");
+            }
+
+            @Override
+            public void draw(KarmaPlatform app, Graphics2D g, Map<String, Object> state) {
+                drawn.add(state.get("score"));
+            }
+        });
+        app.getSceneManager().activate("hud");
+
+        app.renderFrame();
+        Assertions.assertEquals(List.of(42), drawn, "The scene must be drawn from its captured state");
+    }
+
+    @Test
+    public void bandRenderingDrawsTheSamePixels() {
+        KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+        app.getSceneManager().start();
+        KarmaPlatform.Scene scene = app.getSceneManager().getCurrent();
+        for (int i = 0; i < 40; i++) {
+            scene.addEntity(new KarmaPlatform.Entity("shape_" + i)
+                .setType(i % 2 == 0 ? KarmaPlatform.EntityType.RECTANGLE : KarmaPlatform.EntityType.ELLIPSE)
+                .setPosition((i * 37) % 300, (i * 23) % 190)
+                .setSize(8 + i % 12, 6 + i % 9)
+                .setPriority(i)
+                .setForegroundColor(new Color(0xFF000000 | i * 0x061F4B, true))
+                .setBackgroundColor(new Color(0x80000000 | i * 0x2B0A13, true)));
+        }
+        // debug information can not be drawn by bands.
+        app.getConfiguration().parseArguments(List.of("app.debug=0"));
+        try {
+            app.getConfiguration().parseArguments(List.of("app.rendering.bands=1"));
+            BufferedImage single = app.renderFrame();
+            int[] expected = single.getRGB(0, 0, single.getWidth(), single.getHeight(), null, 0, single.getWidth());
+
+            app.getConfiguration().parseArguments(List.of("app.rendering.bands=4"));
+            BufferedImage bands = app.renderFrame();
+            int[] actual = bands.getRGB(0, 0, bands.getWidth(), bands.getHeight(), null, 0, bands.getWidth());
+
+            Assertions.assertArrayEquals(expected, actual, "Band rendering must draw the same pixels");
+        } finally {
+            app.getConfiguration().parseArguments(List.of("app.debug=2"));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import my.karma.app.tests.scenes.TestScene;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class KarmaSceneManagerTest {
+    static KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+    KarmaPlatform.SceneManager scm;
+    int otherCreated;
+
+    /**
+     * A scene changing the world and drawing random values when created.
+     */
+    class OtherScene extends KarmaPlatform.AbstractScene {
+        private final KarmaPlatform.Disturbance wind = (KarmaPlatform.Disturbance) new KarmaPlatform.Disturbance("wind")
+            .setPosition(0, 0)
+            .setSize(10, 10)
+            .addForce(new KarmaPlatform.Vector2D(0.1, 0.0));
+
+        OtherScene(KarmaPlatform app) {
+            super(app);
+        }
+
+        @Override
+        public String getTitle() {
+            return "other";
+        }
+
+        @Override
+        public void create(KarmaPlatform app) {
+            otherCreated++;
+            getWorld().addDisturbance(wind);
+            addEntity(new KarmaPlatform.Entity("other_01").setPosition(getRandom().nextDouble(), 0));
+        }
+
+        @Override
+        public String getName() {
+            return "other";
+        }
+    }
+
+    private KarmaPlatform.SceneManager createSceneManager(KarmaPlatform app) {
+        KarmaPlatform.SceneManager sm = new KarmaPlatform.SceneManager(app);
+        sm.add(new TestScene(app));
+        sm.add(new OtherScene(app));
+        return sm;
+    }
+
+    private static void waitForSwap(KarmaPlatform.SceneManager sm) throws InterruptedException {
+        for (int i = 0; i < 100 && !sm.swap(); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @BeforeEach
+    public void setup() {
+        otherCreated = 0;
+        scm = createSceneManager(app);
+        scm.start("test");
+    }
+
+    @Test
+    public void sceneIsPreparedThenSwappedAtTickBoundary() throws InterruptedException {
+        scm.setAsync(true).activate("other");
+        Assertions.assertEquals("test", scm.getCurrent().getTitle(), "Current scene must run until the swap");
+        waitForSwap(scm);
+        Assertions.assertEquals("other", scm.getCurrent().getTitle(), "Prepared scene has not been swapped in");
+        Assertions.assertNotNull(scm.getCurrent().getEntity("other_01"), "Prepared scene has not been created");
+        Assertions.assertFalse(scm.isPreparing(), "No more scene must be in preparation");
+        scm.dispose();
+    }
+
+    @Test
+    public void preparedSceneWorldChangesAreAppliedOnSwap() throws InterruptedException {
+        KarmaPlatform local = new KarmaPlatform("/test-config.properties");
+        KarmaPlatform.SceneManager sm = createSceneManager(local);
+        sm.start("test");
+        OtherScene other = (OtherScene) sm.getScenes().stream()
+            .filter(s -> s.getTitle().equals("other")).findFirst().orElseThrow();
+        sm.setAsync(true).prepare("other");
+        for (int i = 0; i < 100 && otherCreated == 0; i++) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(20);
+        Assertions.assertFalse(local.getWorld().getDisturbances().contains(other.wind),
+            "Running scene's world must not be changed by the prepared one");
+
+        waitForSwap(sm);
+        Assertions.assertEquals("other", sm.getCurrent().getTitle(), "Prepared scene has not been swapped in");
+        Assertions.assertTrue(local.getWorld().getDisturbances().contains(other.wind),
+            "Staged world changes have not been applied");
+        Assertions.assertSame(local.getWorld(), other.getWorld(), "Scene must use the platform's world once started");
+        sm.dispose();
+    }
+
+    @Test
+    public void preparedSceneDrawsTheSameRandomValuesAsASynchronousOne() throws InterruptedException {
+        KarmaPlatform syncApp = new KarmaPlatform("/test-config.properties");
+        syncApp.getConfiguration().parseArguments(List.of("app.simulation.seed=42"));
+        KarmaPlatform.SceneManager syncSm = createSceneManager(syncApp);
+        syncSm.start("test");
+        syncSm.activate("other");
+
+        KarmaPlatform asyncApp = new KarmaPlatform("/test-config.properties");
+        asyncApp.getConfiguration().parseArguments(List.of("app.simulation.seed=42"));
+        KarmaPlatform.SceneManager asyncSm = createSceneManager(asyncApp);
+        asyncSm.start("test");
+        asyncSm.setAsync(true).activate("other");
+        // the running scene draws from the platform's generator while the other one is prepared.
+        asyncApp.getRandom().nextDouble();
+        waitForSwap(asyncSm);
+
+        Assertions.assertEquals(syncSm.getCurrent().getEntity("other_01").getPosition().x,
+            asyncSm.getCurrent().getEntity("other_01").getPosition().x,
+            "Prepared scene must draw the same random values as a synchronously created one");
+        asyncSm.dispose();
+    }
+
+    @Test
+    public void currentSceneIsActivatedAgainSynchronously() {
+        scm.setAsync(true);
+        scm.prepare("test");
+        Assertions.assertFalse(scm.isPreparing(), "Running scene must not be prepared in the background");
+
+        scm.activate("test");
+        Assertions.assertFalse(scm.isPreparing(), "Running scene must be restarted synchronously");
+        Assertions.assertNotNull(scm.getCurrent().getEntity("et_01"), "Running scene has not been created again");
+        scm.dispose();
+    }
+
+    @Test
+    public void sceneIsPreparedBeforeAnySceneHasStarted() throws InterruptedException {
+        KarmaPlatform.SceneManager sm = createSceneManager(app);
+        sm.setAsync(true).setTransitionSceneName("test");
+        sm.prepare("other");
+        Assertions.assertEquals("test", sm.getCurrent().getTitle(), "Transition scene must be started");
+        waitForSwap(sm);
+        Assertions.assertEquals("other", sm.getCurrent().getTitle(), "Prepared scene has not been swapped in");
+        sm.dispose();
+    }
+
+    @Test
+    public void cachedSceneIsReactivatedWithoutCreate() {
+        scm.setCacheEnabled(true);
+        scm.activate("other");
+        scm.getCurrent().getEntity("other_01").setPosition(42, 0);
+        scm.activate("test");
+        Assertions.assertTrue(scm.isCached("other"), "Disposed scene has not been cached");
+
+        scm.activate("other");
+        Assertions.assertEquals(1, otherCreated, "Cached scene must not be created again");
+        Assertions.assertEquals(42.0, scm.getCurrent().getEntity("other_01").getPosition().x,
+            "Cached scene has lost its entities state");
+    }
+}
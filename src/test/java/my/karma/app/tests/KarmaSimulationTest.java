@@ -0,0 +1,45 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+public class KarmaSimulationTest {
+    static KarmaPlatform app;
+
+    @BeforeAll
+    public static void setup() {
+        app = new KarmaPlatform("/test-config.properties");
+    }
+
+    @Test
+    public void simulationRandomIsSeeded() {
+        app.getConfiguration().parseArguments(List.of("app.simulation.seed=42"));
+        Random expected = new Random(42);
+        Assertions.assertEquals(expected.nextDouble(), app.getRandom().nextDouble(), "Random is not seeded");
+        Assertions.assertEquals(expected.nextDouble(), app.getRandom().nextDouble(), "Random is not seeded");
+    }
+
+    @Test
+    public void simulationChecksumFollowsEntitiesState() {
+        List<KarmaPlatform.Entity> run1 = List.of(
+            new KarmaPlatform.Entity("a").setPosition(10, 20).setVelocity(0.1, 0.2),
+            new KarmaPlatform.Entity("b").setPosition(30, 40));
+        List<KarmaPlatform.Entity> run2 = List.of(
+            new KarmaPlatform.Entity("b").setPosition(30, 40),
+            new KarmaPlatform.Entity("a").setPosition(10, 20).setVelocity(0.1, 0.2));
+        Assertions.assertEquals(
+            KarmaPlatform.SimulationChecksum.compute(run1),
+            KarmaPlatform.SimulationChecksum.compute(run2),
+            "Same states must have the same checksum");
+        run2.get(0).setPosition(30, 40.000001);
+        Assertions.assertNotEquals(
+            KarmaPlatform.SimulationChecksum.compute(run1),
+            KarmaPlatform.SimulationChecksum.compute(run2),
+            "Different states must have different checksums");
+    }
+}
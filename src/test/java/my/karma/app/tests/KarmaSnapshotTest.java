@@ -0,0 +1,230 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import my.karma.app.tests.scenes.TestScene;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+public class KarmaSnapshotTest {
+    static KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+    TestScene scene;
+
+    @BeforeEach
+    public void setup() {
+        scene = new TestScene(app);
+        scene.addEntity(new KarmaPlatform.Entity("player")
+            .setPosition(10, 20)
+            .setVelocity(0.5, -0.5)
+            .setAttribute("energy", 100.0)
+            .setAttribute("lives", 3)
+            .add(new KarmaPlatform.Entity("shield").setPosition(8, 18)));
+        scene.addEntity(new KarmaPlatform.Entity("ball").setPosition(100, 50));
+    }
+
+    @Test
+    public void snapshotRestoresEntitiesState() {
+        KarmaPlatform.SceneSnapshot snapshot = new KarmaPlatform.SceneSnapshot().capture(scene);
+        KarmaPlatform.Entity player = scene.getEntity("player");
+        player.setPosition(200, 200).setAttribute("energy", 10.0).setAttribute("lives", 1);
+        player.getVelocity().x = 0.0;
+        player.getChild().iterator().next().getPosition().x = 0;
+        scene.getEntity("ball").setActive(false);
+
+        snapshot.restore(scene);
+
+        Assertions.assertSame(player, scene.getEntity("player"), "Entity must be restored in place");
+        Assertions.assertEquals(10.0, player.getPosition().x, "Position has not been restored");
+        Assertions.assertEquals(0.5, player.getVelocity().x, "Velocity has not been restored");
+        Assertions.assertEquals(100.0, (double) player.getAttribute("energy"), "Attribute has not been restored");
+        Assertions.assertEquals(3, (int) player.getAttribute("lives"), "Attribute has not been restored");
+        Assertions.assertEquals(8.0, player.getChild().iterator().next().getPosition().x, "Child has not been restored");
+        Assertions.assertTrue(scene.getEntity("ball").isActive(), "Active status has not been restored");
+    }
+
+    @Test
+    public void snapshotKeepsUnchangedAttributes() {
+        KarmaPlatform.Entity player = scene.getEntity("player");
+        Object energy = player.getAttribute("energy");
+        KarmaPlatform.SceneSnapshot snapshot = new KarmaPlatform.SceneSnapshot().capture(scene);
+        player.setAttribute("lives", 1000);
+
+        snapshot.restore(scene);
+
+        Assertions.assertSame(energy, player.getAttribute("energy"), "Unchanged attribute must not be replaced");
+        Assertions.assertEquals(3, (int) player.getAttribute("lives"), "Attribute has not been restored");
+    }
+
+    @Test
+    public void snapshotRestoresSceneEntitiesList() {
+        KarmaPlatform.SceneSnapshot snapshot = new KarmaPlatform.SceneSnapshot().capture(scene);
+        KarmaPlatform.Entity ball = scene.getEntity("ball");
+        scene.getEntities().remove(ball);
+        scene.addEntity(new KarmaPlatform.Entity("enemy"));
+
+        snapshot.restore(scene);
+
+        Assertions.assertEquals(2, scene.getEntities().size(), "Entities list has not been restored");
+        Assertions.assertSame(ball, scene.getEntity("ball"), "Removed entity has not been restored");
+        Assertions.assertNull(scene.getEntity("enemy"), "Added entity has not been removed");
+    }
+
+    @Test
+    public void snapshotRestoresColorsAndCamera() {
+        KarmaPlatform.Camera cam = new KarmaPlatform.Camera("cam")
+            .setViewport(new Rectangle2D.Double(0, 0, 320, 200));
+        cam.setPosition(10, 20);
+        scene.setCamera(cam);
+        KarmaPlatform.Entity ball = scene.getEntity("ball");
+        ball.setForegroundColor(Color.WHITE).setBackgroundColor(Color.BLUE);
+        KarmaPlatform.SceneSnapshot snapshot = new KarmaPlatform.SceneSnapshot().capture(scene);
+        ball.setForegroundColor(Color.RED).setBackgroundColor(null);
+        cam.setPosition(150, 80);
+        cam.getViewport().setRect(150, 80, 320, 200);
+
+        snapshot.restore(scene);
+
+        Assertions.assertEquals(Color.WHITE, ball.getForegroundColor(), "Foreground color has not been restored");
+        Assertions.assertEquals(Color.BLUE, ball.getBackgroundColor(), "Background color has not been restored");
+        Assertions.assertEquals(10.0, cam.getPosition().x, "Camera has not been restored");
+        Assertions.assertEquals(20.0, cam.getViewport().getY(), "Camera viewport has not been restored");
+    }
+
+    @Test
+    public void rewindBufferStepsBackAndForth() {
+        KarmaPlatform.RewindBuffer rewind = new KarmaPlatform.RewindBuffer(4);
+        KarmaPlatform.Entity player = scene.getEntity("player");
+        for (int tick = 0; tick < 6; tick++) {
+            player.getPosition().x = tick * 10.0;
+            rewind.record(scene, tick);
+        }
+        Assertions.assertEquals(5, rewind.getLatestTick(), "Wrong latest tick");
+
+        Assertions.assertTrue(rewind.stepBack(scene), "Rewind must step back");
+        Assertions.assertEquals(40.0, player.getPosition().x, "Position has not been rewound");
+        Assertions.assertTrue(rewind.rewindTo(scene, 1), "Rewind must reach the oldest tick");
+        Assertions.assertEquals(10.0, player.getPosition().x, "Position has not been rewound");
+        Assertions.assertFalse(rewind.stepBack(scene), "History is limited to the buffer size");
+        Assertions.assertTrue(rewind.stepForward(scene), "Rewind must step forward");
+        Assertions.assertEquals(20.0, player.getPosition().x, "Position has not been restored forward");
+
+        player.getPosition().x = 99.0;
+        rewind.record(scene, 3);
+        Assertions.assertEquals(3, rewind.getLatestTick(), "Future history must be discarded");
+        Assertions.assertFalse(rewind.stepForward(scene), "No tick after the latest one");
+    }
+
+    @Test
+    public void rewindBufferRecordsHighEntropyDeltas() {
+        TestScene noisy = new TestScene(app);
+        for (int i = 0; i < 10; i++) {
+            noisy.addEntity(new KarmaPlatform.Entity("noise_" + i));
+        }
+        double pattern = Double.longBitsToDouble(0x00FF00FF00FF00FFL);
+        KarmaPlatform.RewindBuffer rewind = new KarmaPlatform.RewindBuffer(4);
+        rewind.record(noisy, 0);
+        // every other byte of the state changes.
+        noisy.getEntities().forEach(e -> {
+            e.setPosition(pattern, pattern).setVelocity(pattern, pattern).setAcceleration(pattern, pattern);
+            e.setForegroundColor(new Color(e.getForegroundColor().getRGB() ^ 0x00FF00FF, true));
+            e.setBackgroundColor(new Color(e.getBackgroundColor().getRGB() ^ 0x00FF00FF, true));
+        });
+        rewind.record(noisy, 1);
+        Assertions.assertTrue(rewind.stepBack(noisy), "Rewind must step back");
+        noisy.getEntities().forEach(e ->
+            Assertions.assertEquals(0.0, e.getPosition().x, "Position has not been rewound"));
+        Assertions.assertTrue(rewind.stepForward(noisy), "Rewind must step forward");
+        noisy.getEntities().forEach(e ->
+            Assertions.assertEquals(pattern, e.getVelocity().y, "Velocity has not been restored forward"));
+    }
+
+    @Test
+    public void resimulationReplaysTheRecordedInputs() {
+        KarmaPlatform sim = new KarmaPlatform("/test-config.properties");
+        sim.getConfiguration().parseArguments(List.of(
+            "app.simulation.fixed.delta=16",
+            "app.simulation.rewind.ticks=60"));
+        sim.setSpacePartition(new KarmaPlatform.SpacePartition(sim));
+        sim.getSceneManager().start();
+        KarmaPlatform.Entity player = sim.getSceneManager().getCurrent().getEntity("et_01");
+        player.addBehavior(new KarmaPlatform.Behavior<>() {
+            @Override
+            public void onInput(KarmaPlatform a, KarmaPlatform.Entity e) {
+                if (a.isActionActive("right")) {
+                    e.setVelocity(e.getVelocity().x + 0.01, e.getVelocity().y);
+                }
+            }
+        });
+        for (int i = 0; i < 20; i++) {
+            if (i == 5) {
+                sim.keyPressed(new KeyEvent(sim, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_RIGHT, KeyEvent.CHAR_UNDEFINED));
+            } else if (i == 12) {
+                sim.keyReleased(new KeyEvent(sim, KeyEvent.KEY_RELEASED, 0, 0, KeyEvent.VK_RIGHT, KeyEvent.CHAR_UNDEFINED));
+            }
+            sim.step(16);
+        }
+        long tick = sim.getTick();
+        long expected = KarmaPlatform.SimulationChecksum.compute(sim.getSceneManager().getCurrent().getEntities());
+
+        Assertions.assertTrue(sim.resimulateFrom(tick - 18), "Re-simulation must start from a tick in history");
+        Assertions.assertEquals(tick, sim.getTick(), "Re-simulation must reach back the current tick");
+        Assertions.assertEquals(expected,
+            KarmaPlatform.SimulationChecksum.compute(sim.getSceneManager().getCurrent().getEntities()),
+            "Re-simulation with the same inputs must give the same state");
+
+        // a late input on a past tick changes the outcome.
+        long right = 1L << sim.getInputActions().getActionId("right");
+        Assertions.assertTrue(sim.getRewindBuffer().setInputBits(tick - 2, right), "Input must be changed in history");
+        Assertions.assertTrue(sim.resimulateFrom(tick - 3), "Re-simulation must start from a tick in history");
+        Assertions.assertNotEquals(expected,
+            KarmaPlatform.SimulationChecksum.compute(sim.getSceneManager().getCurrent().getEntities()),
+            "Re-simulation must use the late input");
+    }
+
+    @Test
+    public void resimulationGoesOnWithTheRestingContactsAndRandomValues() {
+        KarmaPlatform sim = new KarmaPlatform("/test-config.properties");
+        sim.getConfiguration().parseArguments(List.of(
+            "app.simulation.seed=7",
+            "app.simulation.fixed.delta=16",
+            "app.simulation.rewind.ticks=60"));
+        sim.setSpacePartition(new KarmaPlatform.SpacePartition(sim));
+        sim.getSceneManager().start();
+        KarmaPlatform.Scene current = sim.getSceneManager().getCurrent();
+        current.addEntity(new KarmaPlatform.Entity("floor")
+            .setPhysicType(KarmaPlatform.PhysicType.STATIC)
+            .setPosition(0, 20).setSize(100, 10));
+        KarmaPlatform.Entity box = new KarmaPlatform.Entity("box").setPosition(10, 10).setSize(10, 10);
+        current.addEntity(box);
+        int[] enters = new int[1];
+        box.addBehavior(new KarmaPlatform.Behavior<>() {
+            @Override
+            public void onUpdate(KarmaPlatform a, KarmaPlatform.Entity e, double d) {
+                // a small random push, to be drawn again the same way by the re-simulation.
+                e.getVelocity().x += (a.getRandom().nextDouble() - 0.5) * 0.001;
+            }
+
+            @Override
+            public void onCollisionEnter(KarmaPlatform.CollisionEvent ce) {
+                enters[0]++;
+            }
+        });
+        for (int i = 0; i < 30; i++) {
+            sim.step(16);
+        }
+        Assertions.assertEquals(1, enters[0], "The box must rest on the floor");
+        Assertions.assertEquals(1, box.getCollisions().size(), "The box must be in contact with the floor");
+        long tick = sim.getTick();
+        long expected = KarmaPlatform.SimulationChecksum.compute(current.getEntities());
+
+        Assertions.assertTrue(sim.resimulateFrom(tick - 10), "Re-simulation must start from a tick in history");
+        Assertions.assertEquals(1, enters[0], "A resting contact must not enter again");
+        Assertions.assertEquals(expected, KarmaPlatform.SimulationChecksum.compute(current.getEntities()),
+            "Re-simulation of a resting contact must give the same state");
+    }
+}
@@ -0,0 +1,93 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class KarmaSpriteAtlasTest {
+
+    private static BufferedImage createImage(int w, int h, Color left, Color right) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(left);
+        g.fillRect(0, 0, w / 2, h);
+        g.setColor(right);
+        g.fillRect(w / 2, 0, w - w / 2, h);
+        g.dispose();
+        return img;
+    }
+
+    @Test
+    public void atlasPacksImagesWithFlippedCopies() {
+        KarmaPlatform.SpriteAtlas atlas = new KarmaPlatform.SpriteAtlas(64)
+            .add("player", createImage(16, 16, Color.RED, Color.BLUE))
+            .add("ball", createImage(8, 8, Color.GREEN, Color.GREEN))
+            .pack();
+        KarmaPlatform.SpriteAtlas.Sprite player = atlas.getSprite("player");
+        Assertions.assertNotNull(player, "Sprite has not been packed");
+        Assertions.assertEquals(1, atlas.getPages().size(), "All sprites must fit into one page");
+        BufferedImage page = atlas.getPages().get(0);
+        Assertions.assertEquals(Color.RED.getRGB(), page.getRGB(player.getX(), player.getY()), "Wrong sprite pixel");
+        Assertions.assertEquals(Color.BLUE.getRGB(), page.getRGB(player.getFlippedX(), player.getY()), "Sprite copy is not flipped");
+        Assertions.assertEquals(Color.GREEN.getRGB(),
+            page.getRGB(atlas.getSprite("ball").getX(), atlas.getSprite("ball").getY()), "Wrong sprite pixel");
+    }
+
+    @Test
+    public void atlasOpensNewPageWhenFull() {
+        KarmaPlatform.SpriteAtlas atlas = new KarmaPlatform.SpriteAtlas(32);
+        for (int i = 0; i < 5; i++) {
+            atlas.add("s" + i, createImage(16, 16, Color.RED, Color.BLUE));
+        }
+        atlas.pack();
+        Assertions.assertEquals(3, atlas.getPages().size(), "Wrong number of atlas pages");
+        Assertions.assertEquals(2, atlas.getSprite("s4").getPageIndex(), "Last sprite must be on the last page");
+    }
+
+    @Test
+    public void atlasDefinesSubSpritesWithFlippedRegion() {
+        KarmaPlatform.SpriteAtlas atlas = new KarmaPlatform.SpriteAtlas(64)
+            .add("sheet", createImage(32, 8, Color.RED, Color.BLUE))
+            .pack();
+        KarmaPlatform.SpriteAtlas.Sprite frame = atlas.define("frame_0", "sheet", 0, 0, 16, 8);
+        BufferedImage page = atlas.getPages().get(0);
+        Assertions.assertEquals(Color.RED.getRGB(), page.getRGB(frame.getX(), frame.getY()), "Wrong frame pixel");
+        Assertions.assertEquals(Color.RED.getRGB(), page.getRGB(frame.getFlippedX() + 15, frame.getY()),
+            "Flipped frame region is wrong");
+    }
+
+    @Test
+    public void animationClipPlaysFramesFromTheTick() {
+        KarmaPlatform.SpriteAtlas atlas = new KarmaPlatform.SpriteAtlas(128)
+            .add("hero", createImage(32, 16, Color.RED, Color.BLUE))
+            .pack();
+        KarmaPlatform.AnimationClip run = KarmaPlatform.AnimationClip.fromSheet(atlas, "hero", 0, 16, 16, 2, 3, true);
+        KarmaPlatform.AnimationClip jump = KarmaPlatform.AnimationClip.fromSheet(atlas, "hero", 0, 16, 16, 2, 3, false);
+        Assertions.assertEquals(6, run.getDuration(), "Wrong clip duration in ticks");
+        Assertions.assertSame(run.frameAt(0), run.frameAt(2), "Frame must last 3 ticks");
+        Assertions.assertNotSame(run.frameAt(2), run.frameAt(3), "Next frame must start after 3 ticks");
+        Assertions.assertSame(run.frameAt(0), run.frameAt(6), "Looping clip must restart");
+        Assertions.assertSame(jump.frameAt(5), jump.frameAt(60), "Clip must stay on its last frame");
+    }
+
+    @Test
+    public void animationStateIsSelectedFromVelocity() {
+        KarmaPlatform.SpriteAtlas atlas = new KarmaPlatform.SpriteAtlas(128)
+            .add("hero", createImage(32, 16, Color.RED, Color.BLUE))
+            .pack();
+        KarmaPlatform.Animation animation = new KarmaPlatform.Animation()
+            .add(KarmaPlatform.AnimationState.IDLE, KarmaPlatform.AnimationClip.fromSheet(atlas, "hero", 0, 16, 16, 1, 1, true))
+            .add(KarmaPlatform.AnimationState.RUN, KarmaPlatform.AnimationClip.fromSheet(atlas, "hero", 0, 16, 16, 2, 4, true));
+        KarmaPlatform.Entity e = new KarmaPlatform.Entity("hero").setAnimation(animation);
+        e.update(16);
+        Assertions.assertEquals(KarmaPlatform.AnimationState.IDLE, e.getAnimationState(), "Entity must be idle");
+        e.setVelocity(0.1, 0);
+        e.update(16);
+        Assertions.assertEquals(KarmaPlatform.AnimationState.RUN, e.getAnimationState(), "Entity must run");
+        Assertions.assertSame(animation.getClip(KarmaPlatform.AnimationState.IDLE),
+            animation.getClip(KarmaPlatform.AnimationState.JUMP), "Missing clip must fall back to idle");
+    }
+}
@@ -0,0 +1,55 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+public class KarmaTextTest {
+    private static final Font FONT = new Font(Font.SANS_SERIF, Font.BOLD, 12);
+
+    @Test
+    public void textCacheReusesRenderedText() {
+        KarmaPlatform.TextCache cache = new KarmaPlatform.TextCache(2);
+        KarmaPlatform.TextCache.CachedText t1 = cache.get("00012", FONT, Color.WHITE, Color.BLACK);
+        Assertions.assertSame(t1, cache.get("00012", FONT, Color.WHITE, Color.BLACK), "Text must be rendered once");
+        Assertions.assertNotSame(t1, cache.get("00012", FONT, Color.RED, Color.BLACK), "Colors are part of the key");
+        Assertions.assertEquals(cache.getMetrics(FONT).stringWidth("00012"), t1.getWidth(), "Wrong text width");
+        Assertions.assertEquals(t1.getWidth() + 2, t1.getImage().getWidth(), "Image must have an outline margin");
+    }
+
+    @Test
+    public void textCacheEvictsLeastRecentlyUsedText() {
+        KarmaPlatform.TextCache cache = new KarmaPlatform.TextCache(2);
+        KarmaPlatform.TextCache.CachedText t1 = cache.get("1", FONT, Color.WHITE, Color.BLACK);
+        cache.get("2", FONT, Color.WHITE, Color.BLACK);
+        cache.get("3", FONT, Color.WHITE, Color.BLACK);
+        Assertions.assertEquals(2, cache.size(), "Cache must be limited to its capacity");
+        Assertions.assertNotSame(t1, cache.get("1", FONT, Color.WHITE, Color.BLACK), "Oldest text must be evicted");
+    }
+
+    @Test
+    public void textObjectFormatsValueLazily() {
+        KarmaPlatform.TextObject score = new KarmaPlatform.TextObject("score").setFormat("%05d").setValue(42);
+        Assertions.assertTrue(score.isTextDirty(), "New value must mark the text as dirty");
+        Assertions.assertEquals("00042", score.getText(), "Wrong formatted text");
+        Assertions.assertFalse(score.isTextDirty(), "Text must be formatted once");
+        score.setValue(42);
+        Assertions.assertFalse(score.isTextDirty(), "Same value must not mark the text as dirty");
+    }
+
+    @Test
+    public void textObjectIntegerFastPathMatchesStringFormat() {
+        String[] formats = {"%d", "%5d", "%05d", "Score: %06d pts", "%02d"};
+        int[] values = {0, 7, -42, 123456, Integer.MIN_VALUE};
+        KarmaPlatform.TextObject to = new KarmaPlatform.TextObject("txt");
+        for (String f : formats) {
+            to.setFormat(f);
+            for (int v : values) {
+                to.setValue(v);
+                Assertions.assertEquals(String.format(f, v), to.getText(), "Wrong text for " + f + " and " + v);
+            }
+        }
+    }
+}
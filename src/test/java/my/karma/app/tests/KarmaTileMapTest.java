@@ -0,0 +1,125 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+public class KarmaTileMapTest {
+    static Path mapFile;
+
+    @BeforeAll
+    public static void setup() throws IOException {
+        // a 40x20 tiles map with a floor on the last row and a single block at (10,5).
+        short[] ids = new short[40 * 20];
+        for (int x = 0; x < 40; x++) {
+            ids[19 * 40 + x] = 1;
+        }
+        ids[5 * 40 + 10] = 2;
+        mapFile = Files.createTempFile("karma-tilemap", ".map");
+        mapFile.toFile().deleteOnExit();
+        KarmaPlatform.TileMap.write(mapFile, 40, 20, ids);
+    }
+
+    @Test
+    public void tileMapIsLoadedFromMappedFile() {
+        KarmaPlatform.TileMap tm = new KarmaPlatform.TileMap("map").setTileSize(16, 16).load(mapFile);
+        Assertions.assertEquals(40, tm.getMapWidth(), "TileMap has wrong width");
+        Assertions.assertEquals(20, tm.getMapHeight(), "TileMap has wrong height");
+        Assertions.assertEquals(2, tm.getTile(10, 5), "TileMap has wrong tile id");
+        Assertions.assertEquals(1, tm.getTile(39, 19), "TileMap has wrong tile id");
+        Assertions.assertEquals(0, tm.getTile(-1, 50), "Out of map tile must be empty");
+    }
+
+    @Test
+    public void tileMapLoadsChunksAroundViewport() {
+        KarmaPlatform.TileMap tm = new KarmaPlatform.TileMap("map")
+            .setTileSize(16, 16)
+            .setChunkSize(8)
+            .load(mapFile);
+        tm.updateChunks(new Rectangle2D.Double(0, 0, 64, 64));
+        Assertions.assertEquals(2, tm.getLoadedChunks().width, "Wrong number of loaded chunks");
+        Assertions.assertEquals(2, tm.getTile(10, 5), "Chunk has wrong tile id");
+        tm.updateChunks(new Rectangle2D.Double(400, 200, 64, 64));
+        Assertions.assertEquals(2, tm.getLoadedChunks().x, "Chunks were not moved with viewport");
+        Assertions.assertEquals(2, tm.getTile(10, 5), "Unloaded tile must be read from file");
+    }
+
+    @Test
+    public void tileMapSnapshotKeepsTheCapturedChunks() {
+        KarmaPlatform.TileMap tm = new KarmaPlatform.TileMap("map")
+            .setTileSize(16, 16)
+            .setChunkSize(8)
+            .setTileColors(null, Color.GRAY, Color.RED)
+            .load(mapFile);
+        tm.updateChunks(new Rectangle2D.Double(0, 0, 64, 64));
+        KarmaPlatform.TileMap.Snapshot snapshot = new KarmaPlatform.TileMap.Snapshot();
+        tm.capture(snapshot);
+        // the game thread loads other chunks before the snapshot is drawn.
+        tm.updateChunks(new Rectangle2D.Double(400, 200, 64, 64));
+
+        BufferedImage image = new BufferedImage(320, 320, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        snapshot.draw(g);
+        g.dispose();
+        Assertions.assertEquals(Color.RED.getRGB(), image.getRGB(168, 88), "Captured tile (10,5) has not been drawn");
+        Assertions.assertEquals(0, image.getRGB(168, 312), "Tile out of the captured chunks must not be drawn");
+    }
+
+    @Test
+    public void tileMapDetectsSolidTiles() {
+        KarmaPlatform.TileMap tm = new KarmaPlatform.TileMap("map").setTileSize(16, 16).load(mapFile);
+        Assertions.assertTrue(tm.isSolidAt(165, 85), "Tile at (10,5) must be solid");
+        Assertions.assertTrue(tm.intersectsSolid(new Rectangle2D.Double(100, 300, 16, 16)), "Floor must be solid");
+        Assertions.assertFalse(tm.intersectsSolid(new Rectangle2D.Double(100, 100, 16, 16)), "Area must be empty");
+    }
+    @Test
+    public void tileMapRejectsInvalidHeader() throws IOException {
+        Path truncated = Files.createTempFile("karma-tilemap-truncated", ".map");
+        truncated.toFile().deleteOnExit();
+        Files.write(truncated, new byte[]{0, 0});
+        KarmaPlatform.TileMap tm = new KarmaPlatform.TileMap("map").load(truncated);
+        Assertions.assertEquals(0, tm.getMapWidth(), "Truncated map must not be loaded");
+
+        // the declared tiles overflow an int and the file size.
+        Path oversized = Files.createTempFile("karma-tilemap-oversized", ".map");
+        oversized.toFile().deleteOnExit();
+        Files.write(oversized, ByteBuffer.allocate(16).putInt(65536).putInt(65536).array());
+        tm = new KarmaPlatform.TileMap("map").load(oversized);
+        Assertions.assertEquals(0, tm.getMapWidth(), "Oversized map must not be loaded");
+        Assertions.assertEquals(0, tm.getTile(0, 0), "Unloaded map must be empty");
+
+        Path negative = Files.createTempFile("karma-tilemap-negative", ".map");
+        negative.toFile().deleteOnExit();
+        Files.write(negative, ByteBuffer.allocate(16).putInt(-2).putInt(2).array());
+        tm = new KarmaPlatform.TileMap("map").load(negative);
+        Assertions.assertEquals(0, tm.getMapWidth(), "Negative size map must not be loaded");
+    }
+
+    @Test
+    public void tileCollisionOnlyBouncesVelocityHeadingIntoTheTile() {
+        KarmaPlatform app = new KarmaPlatform("/test-config.properties");
+        app.setSpacePartition(new KarmaPlatform.SpacePartition(app));
+        app.getSceneManager().start();
+        KarmaPlatform.Scene scene = app.getSceneManager().getCurrent();
+        scene.addEntity(new KarmaPlatform.TileMap("map").setTileSize(16, 16).load(mapFile));
+        // overlapping the floor top, but already moving up and out of it.
+        KarmaPlatform.Entity leaving = new KarmaPlatform.Entity("leaving")
+            .setPosition(100, 300).setSize(10, 10).setVelocity(0.0, -0.1);
+        scene.addEntity(leaving);
+
+        app.update(16.0, new HashMap<>());
+
+        Assertions.assertTrue(leaving.getVelocity().y < 0.0, "Velocity leaving the tile must not be reflected");
+        Assertions.assertTrue(leaving.getPosition().y + 10 <= 304.0, "Entity must be pushed out of the floor");
+    }
+}
@@ -0,0 +1,119 @@
+package my.karma.app.tests;
+
+import my.karma.app.KarmaPlatform;
+import my.karma.app.tests.scenes.TestScene;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+public class KarmaWorldTest {
+    static KarmaPlatform.World world;
+
+    @BeforeAll
+    public static void setup() {
+        world = new KarmaPlatform.World().setPlayArea(new Rectangle2D.Double(0, 0, 400, 300));
+        world.addDisturbance((KarmaPlatform.Disturbance) new KarmaPlatform.Disturbance("wind")
+            .setPosition(0, 0)
+            .setSize(400, 200)
+            .addForce(new KarmaPlatform.Vector2D(0.1, 0.0)));
+        world.addDisturbance((KarmaPlatform.Disturbance) new KarmaPlatform.Disturbance("mag")
+            .setPosition(0, 0)
+            .setSize(100, 300)
+            .addForce(new KarmaPlatform.Vector2D(-0.2, -0.3))
+            .addForce(new KarmaPlatform.Vector2D(0.0, 0.1)));
+    }
+
+    @Test
+    public void worldDisturbanceForcesAreSummedPerRegion() {
+        Assertions.assertEquals(new KarmaPlatform.Vector2D(0.1, 0.0), world.getDisturbanceForce(200, 100),
+            "Wrong force in the wind only region");
+        KarmaPlatform.Vector2D mag = world.getDisturbanceForce(50, 250);
+        Assertions.assertEquals(-0.2, mag.x, 1e-9, "Wrong horizontal force in the mag only region");
+        Assertions.assertEquals(-0.2, mag.y, 1e-9, "Wrong vertical force in the mag only region");
+        KarmaPlatform.Vector2D both = world.getDisturbanceForce(50, 100);
+        Assertions.assertEquals(-0.1, both.x, 1e-9, "Wrong horizontal force in the overlapping region");
+        Assertions.assertEquals(-0.2, both.y, 1e-9, "Wrong vertical force in the overlapping region");
+    }
+
+    @Test
+    public void worldDisturbanceForceIsNullOutOfDisturbances() {
+        Assertions.assertNull(world.getDisturbanceForce(200, 250), "No disturbance must cover this point");
+        Assertions.assertNull(world.getDisturbanceForce(500, 100), "No disturbance must cover this point");
+    }
+
+    @Test
+    public void worldStreamerUnloadsAndLoadsChunksAroundTheCamera() throws InterruptedException {
+        KarmaPlatform.World streamed = new KarmaPlatform.World().setChunkSize(100, 100).setChunkRadius(1, 1);
+        TestScene scene = new TestScene(new KarmaPlatform("/test-config.properties"));
+        KarmaPlatform.Entity near = new KarmaPlatform.Entity("near").setPosition(10, 10).setSize(10, 10);
+        KarmaPlatform.Entity frozen = new KarmaPlatform.Entity("frozen").setPosition(210, 10).setSize(10, 10);
+        KarmaPlatform.Entity far = new KarmaPlatform.Entity("far").setPosition(510, 10).setSize(10, 10);
+        List.of(near, frozen, far).forEach(scene::addEntity);
+        KarmaPlatform.Camera cam = new KarmaPlatform.Camera("cam").setViewport(new Rectangle2D.Double(0, 0, 100, 100));
+        KarmaPlatform.WorldStreamer streamer = new KarmaPlatform.WorldStreamer(streamed);
+        streamer.start();
+        try {
+            Assertions.assertEquals(List.of(far), streamer.update(scene, cam), "Out of range entity must be unloaded");
+            Assertions.assertNull(scene.getEntity("far"), "Unloaded entity must be removed from the scene");
+            Assertions.assertTrue(frozen.isFrozen(), "Entity in the margin must be frozen");
+            Assertions.assertFalse(near.isFrozen(), "Entity in the active radius must be updated");
+
+            // moving the camera to the far chunk brings it back, and parks the other ones.
+            cam.getViewport().setRect(500, 0, 100, 100);
+            Assertions.assertEquals(2, streamer.update(scene, cam).size(), "Entities left behind must be unloaded");
+            Assertions.assertTrue(waitFor(() -> {
+                streamer.update(scene, cam);
+                return scene.getEntity("far") == far;
+            }), "Entity in range must be loaded back");
+            Assertions.assertFalse(far.isFrozen(), "Loaded entity in the active radius must be updated");
+            Assertions.assertNull(scene.getEntity("near"), "Out of range entity must stay unloaded");
+        } finally {
+            streamer.stop();
+        }
+    }
+
+    @Test
+    public void worldStreamerResetDropsParkedAndPendingChunks() throws InterruptedException {
+        KarmaPlatform.World streamed = new KarmaPlatform.World().setChunkSize(100, 100).setChunkRadius(1, 0);
+        TestScene scene = new TestScene(new KarmaPlatform("/test-config.properties"));
+        KarmaPlatform.Entity near = new KarmaPlatform.Entity("near").setPosition(10, 10).setSize(10, 10);
+        KarmaPlatform.Entity far = new KarmaPlatform.Entity("far").setPosition(510, 10).setSize(10, 10);
+        List.of(near, far).forEach(scene::addEntity);
+        KarmaPlatform.Camera cam = new KarmaPlatform.Camera("cam").setViewport(new Rectangle2D.Double(0, 0, 100, 100));
+        KarmaPlatform.WorldStreamer streamer = new KarmaPlatform.WorldStreamer(streamed);
+        streamer.start();
+        try {
+            streamer.update(scene, cam);
+            // the far chunk is requested, but the scene is reset before the batch is attached.
+            cam.getViewport().setRect(500, 0, 100, 100);
+            streamer.update(scene, cam);
+            streamer.reset();
+            Thread.sleep(200);
+            streamer.update(scene, cam);
+            Assertions.assertNull(scene.getEntity("far"), "Batch of a previous generation must be dropped");
+
+            // the parked chunks have been dropped too.
+            cam.getViewport().setRect(0, 0, 100, 100);
+            streamer.update(scene, cam);
+            Thread.sleep(200);
+            streamer.update(scene, cam);
+            Assertions.assertNull(scene.getEntity("near"), "Parked chunks must be dropped by reset");
+        } finally {
+            streamer.stop();
+        }
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}